@@ -0,0 +1,61 @@
+package by.osinovi.paymentservice.benchmark;
+
+import by.osinovi.paymentservice.dto.OrderMessage;
+import by.osinovi.paymentservice.kafka.codec.AvroDeserializer;
+import by.osinovi.paymentservice.kafka.codec.AvroSerializer;
+import by.osinovi.paymentservice.kafka.codec.LocalSchemaRegistry;
+import by.osinovi.paymentservice.kafka.codec.OrderMessageAvroCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMessageDeserializationBenchmark {
+
+    private static final String TOPIC = "orders-topic";
+
+    private JsonDeserializer<OrderMessage> jsonDeserializer;
+    private AvroDeserializer<OrderMessage> avroDeserializer;
+    private byte[] jsonPayload;
+    private byte[] avroPayload;
+
+    @Setup
+    public void setUp() throws IOException {
+        OrderMessage orderMessage = new OrderMessage(123456L, 42L, new BigDecimal("199.99"));
+        LocalSchemaRegistry schemaRegistry = new LocalSchemaRegistry("classpath*:avro/*/v*.avsc");
+        jsonDeserializer = new JsonDeserializer<>(OrderMessage.class).trustedPackages("by.osinovi.*");
+        avroDeserializer = new AvroDeserializer<>(schemaRegistry, new OrderMessageAvroCodec(), jsonDeserializer);
+        try (JsonSerializer<OrderMessage> jsonSerializer = new JsonSerializer<>()) {
+            jsonPayload = jsonSerializer.serialize(TOPIC, orderMessage);
+        }
+        avroPayload = new AvroSerializer<>(schemaRegistry, new OrderMessageAvroCodec()).serialize(TOPIC, orderMessage);
+    }
+
+    @Benchmark
+    public OrderMessage json() {
+        return jsonDeserializer.deserialize(TOPIC, jsonPayload);
+    }
+
+    @Benchmark
+    public OrderMessage avro() {
+        return avroDeserializer.deserialize(TOPIC, avroPayload);
+    }
+}
@@ -0,0 +1,44 @@
+package by.osinovi.paymentservice.benchmark;
+
+import by.osinovi.paymentservice.util.TimeOrderedUuidGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentIdGenerationBenchmark {
+
+    private final TimeOrderedUuidGenerator timeOrderedUuidGenerator = new TimeOrderedUuidGenerator(Clock.systemUTC());
+
+    @Benchmark
+    public UUID timeOrdered() {
+        return timeOrderedUuidGenerator.generate();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UUID timeOrderedContended() {
+        return timeOrderedUuidGenerator.generate();
+    }
+
+    @Benchmark
+    public UUID random() {
+        return UUID.randomUUID();
+    }
+}
@@ -0,0 +1,57 @@
+package by.osinovi.paymentservice.benchmark;
+
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.kafka.codec.AvroSerializer;
+import by.osinovi.paymentservice.kafka.codec.LocalSchemaRegistry;
+import by.osinovi.paymentservice.kafka.codec.PaymentAvroCodec;
+import by.osinovi.paymentservice.util.PaymentStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentSerializationBenchmark {
+
+    private static final String TOPIC = "payments-topic";
+
+    private JsonSerializer<Payment> jsonSerializer;
+    private AvroSerializer<Payment> avroSerializer;
+    private Payment payment;
+
+    @Setup
+    public void setUp() throws IOException {
+        jsonSerializer = new JsonSerializer<>();
+        avroSerializer = new AvroSerializer<>(new LocalSchemaRegistry("classpath*:avro/*/v*.avsc"), new PaymentAvroCodec());
+        payment = new Payment(UUID.randomUUID(), 123456L, 42L, PaymentStatus.SUCCESS, LocalDateTime.now(),
+                new BigDecimal("199.99"));
+    }
+
+    @Benchmark
+    public byte[] json() {
+        return jsonSerializer.serialize(TOPIC, payment);
+    }
+
+    @Benchmark
+    public byte[] avro() {
+        return avroSerializer.serialize(TOPIC, payment);
+    }
+}
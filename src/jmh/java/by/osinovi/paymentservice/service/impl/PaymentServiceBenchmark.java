@@ -0,0 +1,112 @@
+package by.osinovi.paymentservice.service.impl;
+
+import by.osinovi.paymentservice.cache.PaymentLookupCache;
+import by.osinovi.paymentservice.cache.RecentOrderCache;
+import by.osinovi.paymentservice.dto.OrderMessage;
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.repository.PaymentRepository;
+import by.osinovi.paymentservice.service.ExternalAPIService;
+import by.osinovi.paymentservice.service.PaymentRollupService;
+import by.osinovi.paymentservice.util.PaymentStatus;
+import by.osinovi.paymentservice.util.TimeOrderedUuidGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionOperations;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentServiceBenchmark {
+
+    private PaymentServiceImpl paymentService;
+    private long nextOrderId;
+
+    @Setup
+    public void setUp() {
+        PaymentRepository paymentRepository = stubRepository();
+        PaymentRollupService paymentRollupService = new NoOpRollupService();
+        paymentService = new PaymentServiceImpl(paymentRepository, new ConstantStatusService(),
+                new RecentOrderCache(100_000, Duration.ofHours(1)),
+                new PaymentLookupCache(new SimpleMeterRegistry(), 100_000, Duration.ofMinutes(5)),
+                paymentRollupService, new TimeOrderedUuidGenerator(Clock.systemUTC()),
+                new PaymentOutbox(null, TransactionOperations.withoutTransaction()),
+                new StaticListableBeanFactory(Map.of("paymentWriteBehindBuffer",
+                        new PaymentWriteBehindBuffer(paymentRepository, paymentRollupService)))
+                        .getBeanProvider(PaymentWriteBehindBuffer.class));
+    }
+
+    @Benchmark
+    public Payment createPayment() {
+        return paymentService.createPayment(new OrderMessage(nextOrderId++, 42L, new BigDecimal("199.99")));
+    }
+
+    @Benchmark
+    public Payment createPaymentForKnownOrder() {
+        return paymentService.createPayment(new OrderMessage(0L, 42L, new BigDecimal("199.99")));
+    }
+
+    private static PaymentRepository stubRepository() {
+        return (PaymentRepository) Proxy.newProxyInstance(PaymentRepository.class.getClassLoader(),
+                new Class<?>[]{PaymentRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> args[0];
+                    case "findFirstByOrderId" -> Optional.empty();
+                    case "findByOrderIdIn" -> List.of();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static final class ConstantStatusService implements ExternalAPIService {
+        @Override
+        public PaymentStatus getStatus() {
+            return PaymentStatus.SUCCESS;
+        }
+
+        @Override
+        public Mono<PaymentStatus> getStatusAsync() {
+            return Mono.just(PaymentStatus.SUCCESS);
+        }
+    }
+
+    private static final class NoOpRollupService implements PaymentRollupService {
+        @Override
+        public void record(Payment payment) {
+        }
+
+        @Override
+        public void remove(Payment payment) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public BigDecimal sumPaymentAmount(LocalDateTime startDate, LocalDateTime endDate) {
+            return BigDecimal.ZERO;
+        }
+    }
+}
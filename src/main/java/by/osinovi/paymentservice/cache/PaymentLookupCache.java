@@ -0,0 +1,68 @@
+package by.osinovi.paymentservice.cache;
+
+import by.osinovi.paymentservice.entity.Payment;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+public class PaymentLookupCache {
+
+    private final Cache<Long, List<Payment>> paymentsByOrderId;
+    private final Cache<Long, List<Payment>> paymentsByUserId;
+
+    public PaymentLookupCache(MeterRegistry meterRegistry,
+                              @Value("${payment.lookup-cache.max-payments}") long maxPayments,
+                              @Value("${payment.lookup-cache.ttl}") Duration expireAfterWrite) {
+        this.paymentsByOrderId = CaffeineCacheMetrics.monitor(meterRegistry,
+                buildCache(maxPayments, expireAfterWrite), "payments.by-order-id");
+        this.paymentsByUserId = CaffeineCacheMetrics.monitor(meterRegistry,
+                buildCache(maxPayments, expireAfterWrite), "payments.by-user-id");
+    }
+
+    public List<Payment> getByOrderId(Long orderId, Function<Long, List<Payment>> loader) {
+        List<Payment> payments = paymentsByOrderId.get(orderId, id -> {
+            List<Payment> loaded = loader.apply(id);
+            return loaded.isEmpty() ? null : List.copyOf(loaded);
+        });
+        return payments == null ? List.of() : payments;
+    }
+
+    public List<Payment> getByUserId(Long userId, Function<Long, List<Payment>> loader) {
+        return paymentsByUserId.get(userId, id -> List.copyOf(loader.apply(id)));
+    }
+
+    public void put(Payment payment) {
+        if (payment.getOrderId() != null) {
+            paymentsByOrderId.put(payment.getOrderId(), List.of(payment));
+        }
+        if (payment.getUserId() != null) {
+            paymentsByUserId.invalidate(payment.getUserId());
+        }
+    }
+
+    public void evict(Payment payment) {
+        if (payment.getOrderId() != null) {
+            paymentsByOrderId.invalidate(payment.getOrderId());
+        }
+        if (payment.getUserId() != null) {
+            paymentsByUserId.invalidate(payment.getUserId());
+        }
+    }
+
+    private static Cache<Long, List<Payment>> buildCache(long maxPayments, Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maxPayments)
+                .<Long, List<Payment>>weigher((id, payments) -> Math.max(1, payments.size()))
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+}
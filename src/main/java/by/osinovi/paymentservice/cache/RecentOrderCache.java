@@ -0,0 +1,44 @@
+package by.osinovi.paymentservice.cache;
+
+import by.osinovi.paymentservice.entity.Payment;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+public class RecentOrderCache {
+
+    private final Cache<Long, Payment> paymentsByOrderId;
+
+    public RecentOrderCache(@Value("${payment.idempotency.cache-size}") long maximumSize,
+                            @Value("${payment.idempotency.cache-ttl}") Duration expireAfterWrite) {
+        this.paymentsByOrderId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public Optional<Payment> get(Long orderId) {
+        return orderId == null ? Optional.empty() : Optional.ofNullable(paymentsByOrderId.getIfPresent(orderId));
+    }
+
+    public void put(Payment payment) {
+        if (payment.getOrderId() != null) {
+            paymentsByOrderId.put(payment.getOrderId(), payment);
+        }
+    }
+
+    public void evict(Long orderId) {
+        if (orderId != null) {
+            paymentsByOrderId.invalidate(orderId);
+        }
+    }
+
+    public void clear() {
+        paymentsByOrderId.invalidateAll();
+    }
+}
@@ -0,0 +1,23 @@
+package by.osinovi.paymentservice.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import java.time.Duration;
+
+public class JdkHttpClientEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!"jdk".equals(environment.getProperty("random-api.http.client"))
+                || System.getProperty(KEEP_ALIVE_PROPERTY) != null) {
+            return;
+        }
+        Binder.get(environment).bind("random-api.http.keep-alive", Duration.class)
+                .ifBound(keepAlive -> System.setProperty(KEEP_ALIVE_PROPERTY, String.valueOf(keepAlive.toSeconds())));
+    }
+}
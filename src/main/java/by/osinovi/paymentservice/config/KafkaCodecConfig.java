@@ -0,0 +1,90 @@
+package by.osinovi.paymentservice.config;
+
+import by.osinovi.paymentservice.dto.OrderMessage;
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.kafka.codec.AvroDeserializer;
+import by.osinovi.paymentservice.kafka.codec.AvroSerializer;
+import by.osinovi.paymentservice.kafka.codec.LocalSchemaRegistry;
+import by.osinovi.paymentservice.kafka.codec.OrderMessageAvroCodec;
+import by.osinovi.paymentservice.kafka.codec.PaymentAvroCodec;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.support.serializer.DelegatingByTopicDeserializer;
+import org.springframework.kafka.support.serializer.DelegatingByTopicSerializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+@Configuration
+public class KafkaCodecConfig {
+
+    @Value("${spring.kafka.topics.orders}")
+    private String ordersTopic;
+
+    @Value("${spring.kafka.topics.payments}")
+    private String paymentsTopic;
+
+    @Value("${payment.kafka.avro-topics}")
+    private Set<String> avroTopics;
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    public DefaultKafkaProducerFactoryCustomizer avroValueSerializerCustomizer(LocalSchemaRegistry schemaRegistry) {
+        return producerFactory -> ((DefaultKafkaProducerFactory<Object, Object>) producerFactory)
+                .setValueSerializerSupplier(() -> {
+                    JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+                    jsonSerializer.configure(producerFactory.getConfigurationProperties(), false);
+                    return new DelegatingByTopicSerializer(avroSerializers(schemaRegistry), jsonSerializer);
+                });
+    }
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    public DefaultKafkaConsumerFactoryCustomizer avroValueDeserializerCustomizer(LocalSchemaRegistry schemaRegistry) {
+        return consumerFactory -> ((DefaultKafkaConsumerFactory<Object, Object>) consumerFactory)
+                .setValueDeserializerSupplier(() -> {
+                    JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+                    jsonDeserializer.configure(consumerFactory.getConfigurationProperties(), false);
+                    return new DelegatingByTopicDeserializer(avroDeserializers(schemaRegistry), jsonDeserializer);
+                });
+    }
+
+    private Map<Pattern, Serializer<?>> avroSerializers(LocalSchemaRegistry schemaRegistry) {
+        Map<Pattern, Serializer<?>> serializers = new LinkedHashMap<>();
+        if (avroTopics.contains(ordersTopic)) {
+            serializers.put(topicPattern(ordersTopic), new AvroSerializer<>(schemaRegistry, new OrderMessageAvroCodec()));
+        }
+        if (avroTopics.contains(paymentsTopic)) {
+            serializers.put(topicPattern(paymentsTopic), new AvroSerializer<>(schemaRegistry, new PaymentAvroCodec()));
+        }
+        return serializers;
+    }
+
+    private Map<Pattern, Deserializer<?>> avroDeserializers(LocalSchemaRegistry schemaRegistry) {
+        Map<Pattern, Deserializer<?>> deserializers = new LinkedHashMap<>();
+        if (avroTopics.contains(ordersTopic)) {
+            deserializers.put(topicPattern(ordersTopic), new AvroDeserializer<>(schemaRegistry,
+                    new OrderMessageAvroCodec(), new JsonDeserializer<>(OrderMessage.class).trustedPackages("by.osinovi.*")));
+        }
+        if (avroTopics.contains(paymentsTopic)) {
+            deserializers.put(topicPattern(paymentsTopic), new AvroDeserializer<>(schemaRegistry,
+                    new PaymentAvroCodec(), new JsonDeserializer<>(Payment.class).trustedPackages("by.osinovi.*")));
+        }
+        return deserializers;
+    }
+
+    private static Pattern topicPattern(String topic) {
+        return Pattern.compile(Pattern.quote(topic));
+    }
+}
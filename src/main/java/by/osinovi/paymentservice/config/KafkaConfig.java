@@ -1,9 +1,19 @@
 package by.osinovi.paymentservice.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.time.Duration;
 
 @Configuration
 public class KafkaConfig {
@@ -12,4 +22,20 @@ public class KafkaConfig {
             ProducerFactory<String, Object> producerFactory) {
         return new KafkaTransactionManager<>(producerFactory);
     }
+
+    @Bean
+    @ConditionalOnBooleanProperty("payment.write-behind.enabled")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> writeBehindListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer, ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${payment.write-behind.retry-backoff}") Duration retryBackoff,
+            @Value("${payment.write-behind.max-retry-backoff}") Duration maxRetryBackoff) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        ExponentialBackOff backOff = new ExponentialBackOff(retryBackoff.toMillis(), 2.0);
+        backOff.setMaxInterval(maxRetryBackoff.toMillis());
+        factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+        return factory;
+    }
 }
@@ -0,0 +1,115 @@
+package by.osinovi.paymentservice.config;
+
+import by.osinovi.paymentservice.entity.OutboxEvent;
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.entity.PaymentRollup;
+import by.osinovi.paymentservice.util.TimeOrderedUuidGenerator;
+import com.mongodb.WriteConcern;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MongoConfig {
+
+    @Value("${payment.mongo.write-concern.payments}")
+    private String paymentWriteConcern;
+
+    @Value("${payment.mongo.write-concern.rollups}")
+    private String rollupWriteConcern;
+
+    @Value("${payment.mongo.pool.max-size}")
+    private int poolMaxSize;
+
+    @Value("${payment.mongo.pool.min-size}")
+    private int poolMinSize;
+
+    @Value("${payment.mongo.pool.max-wait-time}")
+    private Duration poolMaxWaitTime;
+
+    @Value("${payment.mongo.pool.max-idle-time}")
+    private Duration poolMaxIdleTime;
+
+    @Bean
+    public TimeOrderedUuidGenerator paymentIdGenerator(MongoProperties mongoProperties) {
+        return new TimeOrderedUuidGenerator(Clock.systemUTC(), mongoProperties.getUuidRepresentation());
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer() {
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(poolMaxSize)
+                .minSize(poolMinSize)
+                .maxWaitTime(poolMaxWaitTime.toMillis(), TimeUnit.MILLISECONDS)
+                .maxConnectionIdleTime(poolMaxIdleTime.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer observationCustomizer(
+            ObjectProvider<ObservationRegistry> observationRegistry) {
+        ObservationRegistry registry = observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP);
+        return settings -> settings
+                .contextProvider(ContextProviderFactory.create(registry))
+                .addCommandListener(new MongoObservationCommandListener(registry));
+    }
+
+    @Bean
+    public WriteConcernResolver writeConcernResolver() {
+        WriteConcern payments = WriteConcern.valueOf(paymentWriteConcern);
+        WriteConcern rollups = WriteConcern.valueOf(rollupWriteConcern);
+        return action -> {
+            Class<?> entityType = action.getEntityType();
+            if (Payment.class.equals(entityType) || OutboxEvent.class.equals(entityType)) {
+                return payments;
+            }
+            if (PaymentRollup.class.equals(entityType)) {
+                return rollups;
+            }
+            return action.getDefaultWriteConcern();
+        };
+    }
+
+    @Bean
+    @Primary
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory mongoDatabaseFactory, MongoConverter mongoConverter,
+                                       WriteConcernResolver writeConcernResolver) {
+        MongoTemplate mongoTemplate = new MongoTemplate(mongoDatabaseFactory, mongoConverter);
+        mongoTemplate.setWriteConcern(WriteConcern.valueOf(paymentWriteConcern));
+        mongoTemplate.setWriteConcernResolver(writeConcernResolver);
+        return mongoTemplate;
+    }
+
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(ReactiveMongoDatabaseFactory reactiveMongoDatabaseFactory,
+                                                       MongoConverter mongoConverter,
+                                                       WriteConcernResolver writeConcernResolver) {
+        ReactiveMongoTemplate reactiveMongoTemplate = new ReactiveMongoTemplate(reactiveMongoDatabaseFactory, mongoConverter);
+        reactiveMongoTemplate.setWriteConcern(WriteConcern.valueOf(paymentWriteConcern));
+        reactiveMongoTemplate.setWriteConcernResolver(writeConcernResolver);
+        return reactiveMongoTemplate;
+    }
+
+    @Bean
+    public MongoTemplate rollupMongoTemplate(MongoDatabaseFactory mongoDatabaseFactory, MongoConverter mongoConverter) {
+        MongoTemplate mongoTemplate = new MongoTemplate(mongoDatabaseFactory, mongoConverter);
+        mongoTemplate.setWriteConcern(WriteConcern.valueOf(rollupWriteConcern));
+        return mongoTemplate;
+    }
+}
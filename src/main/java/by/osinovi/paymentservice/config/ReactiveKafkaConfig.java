@@ -0,0 +1,47 @@
+package by.osinovi.paymentservice.config;
+
+import by.osinovi.paymentservice.dto.OrderMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.MicrometerConsumerListener;
+import reactor.kafka.receiver.ReceiverOptions;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConditionalOnProperty(name = "payment.pipeline", havingValue = "reactive")
+public class ReactiveKafkaConfig {
+
+    @Value("${spring.kafka.topics.orders}")
+    private String ordersTopic;
+
+    @Value("${payment.reactive.commit-interval}")
+    private Duration commitInterval;
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    public KafkaReceiver<String, OrderMessage> orderReceiver(ConsumerFactory<?, ?> consumerFactory,
+                                                            MeterRegistry meterRegistry) {
+        Map<String, Object> consumerProperties = consumerFactory.getConfigurationProperties();
+        ReceiverOptions<String, OrderMessage> receiverOptions = ReceiverOptions
+                .<String, OrderMessage>create(consumerProperties)
+                .commitInterval(commitInterval)
+                .consumerListener(new MicrometerConsumerListener(meterRegistry))
+                .subscription(List.of(ordersTopic));
+        Deserializer<OrderMessage> valueDeserializer = (Deserializer<OrderMessage>) consumerFactory.getValueDeserializer();
+        if (valueDeserializer != null) {
+            valueDeserializer.configure(consumerProperties, false);
+            receiverOptions = receiverOptions.withValueDeserializer(new ErrorHandlingDeserializer<>(valueDeserializer));
+        }
+        return KafkaReceiver.create(receiverOptions);
+    }
+}
@@ -1,9 +1,34 @@
 package by.osinovi.paymentservice.config;
 
+import by.osinovi.paymentservice.util.CircuitBreaker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.boot.http.client.ClientHttpRequestFactorySettings;
+import org.springframework.boot.http.client.reactive.ClientHttpConnectorBuilder;
+import org.springframework.boot.http.client.reactive.ClientHttpConnectorSettings;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Clock;
+import java.time.Duration;
 
 @Configuration
 public class RestClientConfig {
@@ -11,8 +36,94 @@ public class RestClientConfig {
     @Value("${random-api-url}")
     private String uri;
 
+    @Value("${random-api.connect-timeout}")
+    private Duration connectTimeout;
+
+    @Value("${random-api.read-timeout}")
+    private Duration readTimeout;
+
+    @Value("${random-api.http.max-connections}")
+    private int maxConnections;
+
+    @Value("${random-api.http.max-connections-per-route}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${random-api.http.idle-eviction}")
+    private Duration idleEviction;
+
+    @Value("${random-api.http.keep-alive}")
+    private Duration keepAlive;
+
+    @Bean
+    public RestClient restClient(RestClient.Builder restClientBuilder, ClientHttpRequestFactory randomApiRequestFactory) {
+        return restClientBuilder
+                .baseUrl(uri)
+                .requestFactory(randomApiRequestFactory)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "random-api.http.client", havingValue = "http-components", matchIfMissing = true)
+    public ClientHttpRequestFactory pooledRandomApiRequestFactory(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(keepAlive))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "random-api").bindTo(meterRegistry);
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(keepAlive))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEviction))
+                .build();
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return requestFactory;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "random-api.http.client", havingValue = "jdk")
+    public ClientHttpRequestFactory http2RandomApiRequestFactory() {
+        return ClientHttpRequestFactoryBuilder.jdk()
+                .withHttpClientCustomizer(builder -> builder.version(java.net.http.HttpClient.Version.HTTP_2))
+                .build(ClientHttpRequestFactorySettings.defaults().withTimeouts(connectTimeout, readTimeout));
+    }
+
+    @Bean
+    public WebClient webClient(WebClient.Builder webClientBuilder) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("random-api")
+                .maxConnections(maxConnectionsPerRoute)
+                .maxIdleTime(idleEviction)
+                .maxLifeTime(keepAlive)
+                .evictInBackground(idleEviction)
+                .metrics(true)
+                .build();
+        return webClientBuilder
+                .baseUrl(uri)
+                .clientConnector(ClientHttpConnectorBuilder.reactor()
+                        .withHttpClientFactory(() -> HttpClient.create(connectionProvider)
+                                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2))
+                        .build(ClientHttpConnectorSettings.defaults().withTimeouts(connectTimeout, readTimeout)))
+                .build();
+    }
+
     @Bean
-    public RestClient restClient(RestClient.Builder restClientBuilder) {
-        return restClientBuilder.baseUrl(uri).build();
+    public CircuitBreaker randomApiCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${random-api.circuit-breaker.failure-threshold}") int failureThreshold,
+            @Value("${random-api.circuit-breaker.open-duration}") Duration openDuration,
+            @Value("${random-api.circuit-breaker.half-open-permits}") int halfOpenPermits) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(
+                "random-api", failureThreshold, openDuration, halfOpenPermits, Clock.systemUTC());
+        Gauge.builder("random.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Random API circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        return circuitBreaker;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package by.osinovi.paymentservice.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "payment_outbox")
+public class OutboxEvent {
+    @Id
+    private UUID id;
+
+    private OutboxPayment payment;
+
+    @Indexed(name = "created_at_idx")
+    @Field("created_at")
+    private LocalDateTime createdAt;
+
+    @Field("claimed_by")
+    private String claimedBy;
+
+    @Field("claimed_until")
+    private LocalDateTime claimedUntil;
+
+    public OutboxEvent(Payment payment, LocalDateTime createdAt) {
+        this(payment.getId(), OutboxPayment.of(payment), createdAt, null, null);
+    }
+}
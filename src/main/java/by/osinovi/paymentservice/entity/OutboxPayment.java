@@ -0,0 +1,43 @@
+package by.osinovi.paymentservice.entity;
+
+import by.osinovi.paymentservice.util.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxPayment {
+    private UUID id;
+
+    @Field("order_id")
+    private Long orderId;
+
+    @Field("user_id")
+    private Long userId;
+
+    private PaymentStatus status;
+
+    private LocalDateTime timestamp;
+
+    @Field(name = "payment_amount", targetType = FieldType.DECIMAL128)
+    private BigDecimal paymentAmount;
+
+    public static OutboxPayment of(Payment payment) {
+        return new OutboxPayment(payment.getId(), payment.getOrderId(), payment.getUserId(), payment.getStatus(),
+                payment.getTimestamp(), payment.getPayment_amount());
+    }
+
+    public Payment toPayment() {
+        return new Payment(id, orderId, userId, status, timestamp, paymentAmount);
+    }
+}
@@ -6,8 +6,11 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -18,10 +21,13 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "payments")
+@CompoundIndex(name = "user_id_timestamp_idx", def = "{'user_id': 1, 'timestamp': 1}")
+@CompoundIndex(name = "status_timestamp_idx", def = "{'status': 1, 'timestamp': 1}")
 public class Payment {
     @Id
     private UUID id;
 
+    @Indexed(name = "order_id_unique", unique = true, sparse = true)
     @Field("order_id")
     private Long orderId;
 
@@ -30,8 +36,9 @@ public class Payment {
 
     private PaymentStatus status;
 
+    @Indexed(name = "timestamp_idx")
     private LocalDateTime timestamp;
 
-    @Field("payment_amount")
+    @Field(name = "payment_amount", targetType = FieldType.DECIMAL128)
     private BigDecimal payment_amount;
 }
@@ -0,0 +1,39 @@
+package by.osinovi.paymentservice.entity;
+
+import by.osinovi.paymentservice.util.PaymentStatus;
+import by.osinovi.paymentservice.util.RollupGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "payment_rollups")
+@CompoundIndex(name = "granularity_bucket_start_idx", def = "{'granularity': 1, 'bucket_start': 1}")
+public class PaymentRollup {
+    @Id
+    private String id;
+
+    private RollupGranularity granularity;
+
+    @Field("bucket_start")
+    private LocalDateTime bucketStart;
+
+    private PaymentStatus status;
+
+    private long count;
+
+    @Field(name = "total", targetType = FieldType.DECIMAL128)
+    private BigDecimal total;
+}
@@ -0,0 +1,83 @@
+package by.osinovi.paymentservice.kafka;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+@Component
+@Slf4j
+@ConditionalOnBooleanProperty("payment.kafka.key-ordered.enabled")
+public class KeyOrderedExecutor {
+
+    private final int lanes;
+    private final ExecutorService laneExecutor;
+
+    public KeyOrderedExecutor(@Value("${payment.kafka.key-ordered.lanes}") int lanes,
+                              @Value("${spring.threads.virtual.enabled}") boolean virtualThreads) {
+        this.lanes = lanes;
+        this.laneExecutor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("key-ordered-lane-", 0).factory())
+                : Executors.newFixedThreadPool(lanes, new CustomizableThreadFactory("key-ordered-lane-"));
+    }
+
+    public <T, R> KeyOrderedResult<R> process(List<T> items, Function<T, Object> keyExtractor, Function<T, R> handler) {
+        List<List<Integer>> indexesByLane = new ArrayList<>(lanes);
+        for (int lane = 0; lane < lanes; lane++) {
+            indexesByLane.add(new ArrayList<>());
+        }
+        for (int index = 0; index < items.size(); index++) {
+            indexesByLane.get(Math.floorMod(Objects.hashCode(keyExtractor.apply(items.get(index))), lanes)).add(index);
+        }
+
+        AtomicReferenceArray<R> results = new AtomicReferenceArray<>(items.size());
+        AtomicInteger failedIndex = new AtomicInteger(items.size());
+        RuntimeException[] failures = new RuntimeException[items.size()];
+        CompletableFuture<?>[] laneTasks = indexesByLane.stream()
+                .filter(indexes -> !indexes.isEmpty())
+                .map(indexes -> CompletableFuture.runAsync(() -> {
+                    for (int index : indexes) {
+                        if (index > failedIndex.get()) {
+                            return;
+                        }
+                        try {
+                            results.set(index, handler.apply(items.get(index)));
+                        } catch (RuntimeException e) {
+                            failures[index] = e;
+                            failedIndex.accumulateAndGet(index, Math::min);
+                            return;
+                        }
+                    }
+                }, laneExecutor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(laneTasks).join();
+
+        int firstFailure = failedIndex.get();
+        List<R> completed = new ArrayList<>(firstFailure);
+        for (int index = 0; index < firstFailure; index++) {
+            completed.add(results.get(index));
+        }
+        if (firstFailure == items.size()) {
+            return new KeyOrderedResult<>(completed, -1, null);
+        }
+        log.debug("Key-ordered batch of {} failed at index {}", items.size(), firstFailure);
+        return new KeyOrderedResult<>(completed, firstFailure, failures[firstFailure]);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        laneExecutor.shutdown();
+    }
+}
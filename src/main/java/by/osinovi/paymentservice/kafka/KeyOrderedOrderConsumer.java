@@ -0,0 +1,45 @@
+package by.osinovi.paymentservice.kafka;
+
+import by.osinovi.paymentservice.dto.OrderMessage;
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.service.PaymentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.listener.type", havingValue = "batch")
+@ConditionalOnBooleanProperty("payment.kafka.key-ordered.enabled")
+@ConditionalOnProperty(name = "payment.pipeline", havingValue = "blocking", matchIfMissing = true)
+public class KeyOrderedOrderConsumer {
+    private final PaymentService paymentService;
+    private final PaymentProducer paymentProducer;
+    private final KeyOrderedExecutor keyOrderedExecutor;
+
+    @Value("${payment.outbox.enabled}")
+    private boolean outboxEnabled;
+
+    @KafkaListener(topics = "${spring.kafka.topics.orders}", groupId = "${spring.kafka.consumer.group-id}")
+    public void handleCreateOrders(List<OrderMessage> orderMessages) {
+        KeyOrderedResult<Payment> result = keyOrderedExecutor.process(orderMessages, this::orderingKey,
+                paymentService::createPayment);
+        if (!outboxEnabled && !result.completed().isEmpty()) {
+            paymentProducer.publishCreatePaymentEvents(result.completed());
+        }
+        if (result.isFailed()) {
+            throw new BatchListenerFailedException("Failed to process order "
+                    + orderMessages.get(result.failedIndex()).getOrderId(), result.failure(), result.failedIndex());
+        }
+    }
+
+    private Object orderingKey(OrderMessage orderMessage) {
+        return orderMessage.getUserId() != null ? orderMessage.getUserId() : orderMessage.getOrderId();
+    }
+}
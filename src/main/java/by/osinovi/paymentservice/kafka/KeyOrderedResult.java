@@ -0,0 +1,10 @@
+package by.osinovi.paymentservice.kafka;
+
+import java.util.List;
+
+public record KeyOrderedResult<R>(List<R> completed, int failedIndex, RuntimeException failure) {
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+}
@@ -0,0 +1,31 @@
+package by.osinovi.paymentservice.kafka;
+
+import by.osinovi.paymentservice.dto.OrderMessage;
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.service.PaymentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.listener.type", havingValue = "batch")
+@ConditionalOnBooleanProperty(name = "payment.outbox.enabled", havingValue = false, matchIfMissing = true)
+@ConditionalOnBooleanProperty(name = "payment.kafka.key-ordered.enabled", havingValue = false, matchIfMissing = true)
+@ConditionalOnProperty(name = "payment.pipeline", havingValue = "blocking", matchIfMissing = true)
+public class OrderBatchConsumer {
+    private final PaymentService paymentService;
+    private final PaymentProducer paymentProducer;
+
+    @KafkaListener(topics = "${spring.kafka.topics.orders}", groupId = "${spring.kafka.consumer.group-id}")
+    @Transactional(transactionManager = "kafkaTransactionManager")
+    public void handleCreateOrders(List<OrderMessage> orderMessages) {
+        List<Payment> payments = paymentService.createPayments(orderMessages);
+        paymentProducer.sendCreatePaymentEvents(payments);
+    }
+}
@@ -3,21 +3,41 @@ package by.osinovi.paymentservice.kafka;
 import by.osinovi.paymentservice.dto.OrderMessage;
 import by.osinovi.paymentservice.entity.Payment;
 import by.osinovi.paymentservice.service.PaymentService;
-import lombok.RequiredArgsConstructor;
+import by.osinovi.paymentservice.util.OrderLogContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 @Component
-@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.listener.type", havingValue = "single", matchIfMissing = true)
+@ConditionalOnBooleanProperty(name = "payment.outbox.enabled", havingValue = false, matchIfMissing = true)
+@ConditionalOnProperty(name = "payment.pipeline", havingValue = "blocking", matchIfMissing = true)
+@ConditionalOnBooleanProperty(name = "payment.write-behind.enabled", havingValue = false, matchIfMissing = true)
 public class OrderConsumer {
     private final PaymentService paymentService;
     private final PaymentProducer paymentProducer;
+    private final Timer handleOrderTimer;
+
+    public OrderConsumer(PaymentService paymentService, PaymentProducer paymentProducer, MeterRegistry meterRegistry) {
+        this.paymentService = paymentService;
+        this.paymentProducer = paymentProducer;
+        this.handleOrderTimer = Timer.builder("payment.orders.handle")
+                .description("Time to turn a consumed order into a persisted payment and a sent payment event")
+                .register(meterRegistry);
+    }
 
     @KafkaListener(topics = "${spring.kafka.topics.orders}", groupId = "${spring.kafka.consumer.group-id}")
     @Transactional(transactionManager = "kafkaTransactionManager")
     public void handleCreateOrder(OrderMessage orderMessage) {
-        Payment payment = paymentService.createPayment(orderMessage);
-        paymentProducer.sendCreatePaymentEvent(payment);
+        try (OrderLogContext ignored = OrderLogContext.of(orderMessage)) {
+            handleOrderTimer.record(() -> {
+                Payment payment = paymentService.createPayment(orderMessage);
+                paymentProducer.sendCreatePaymentEvent(payment);
+            });
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package by.osinovi.paymentservice.kafka;
+
+import by.osinovi.paymentservice.dto.OrderMessage;
+import by.osinovi.paymentservice.service.PaymentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.listener.type", havingValue = "batch")
+@ConditionalOnBooleanProperty("payment.outbox.enabled")
+@ConditionalOnBooleanProperty(name = "payment.kafka.key-ordered.enabled", havingValue = false, matchIfMissing = true)
+@ConditionalOnProperty(name = "payment.pipeline", havingValue = "blocking", matchIfMissing = true)
+public class OutboxOrderBatchConsumer {
+    private final PaymentService paymentService;
+
+    @KafkaListener(topics = "${spring.kafka.topics.orders}", groupId = "${spring.kafka.consumer.group-id}")
+    public void handleCreateOrders(List<OrderMessage> orderMessages) {
+        paymentService.createPayments(orderMessages);
+    }
+}
@@ -0,0 +1,26 @@
+package by.osinovi.paymentservice.kafka;
+
+import by.osinovi.paymentservice.dto.OrderMessage;
+import by.osinovi.paymentservice.service.PaymentService;
+import by.osinovi.paymentservice.util.OrderLogContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.kafka.listener.type", havingValue = "single", matchIfMissing = true)
+@ConditionalOnBooleanProperty("payment.outbox.enabled")
+@ConditionalOnProperty(name = "payment.pipeline", havingValue = "blocking", matchIfMissing = true)
+public class OutboxOrderConsumer {
+    private final PaymentService paymentService;
+
+    @KafkaListener(topics = "${spring.kafka.topics.orders}", groupId = "${spring.kafka.consumer.group-id}")
+    public void handleCreateOrder(OrderMessage orderMessage) {
+        try (OrderLogContext ignored = OrderLogContext.of(orderMessage)) {
+            paymentService.createPayment(orderMessage);
+        }
+    }
+}
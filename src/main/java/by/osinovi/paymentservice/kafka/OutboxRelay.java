@@ -0,0 +1,82 @@
+package by.osinovi.paymentservice.kafka;
+
+import by.osinovi.paymentservice.entity.OutboxEvent;
+import by.osinovi.paymentservice.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.kafka.KafkaException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnBooleanProperty("payment.outbox.enabled")
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final PaymentProducer paymentProducer;
+
+    @Value("${payment.outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${payment.outbox.claim-lease}")
+    private Duration claimLease;
+
+    @Scheduled(fixedDelayString = "${payment.outbox.poll-interval-ms}")
+    public void relay() {
+        List<OutboxEvent> events;
+        do {
+            String claimedBy = UUID.randomUUID().toString();
+            try {
+                LocalDateTime now = LocalDateTime.now();
+                events = outboxEventRepository.claimOldest(claimedBy, now, now.plus(claimLease), batchSize);
+            } catch (DataAccessException e) {
+                log.warn("Failed to claim outbox events, retrying on next poll: {}", e.getMessage());
+                return;
+            }
+            if (events.isEmpty()) {
+                return;
+            }
+            if (!publish(claimedBy, events)) {
+                return;
+            }
+            log.debug("Relayed {} outbox events", events.size());
+        } while (events.size() == batchSize);
+    }
+
+    private boolean publish(String claimedBy, List<OutboxEvent> events) {
+        try {
+            paymentProducer.publishCreatePaymentEvents(events.stream()
+                    .map(event -> event.getPayment().toPayment())
+                    .toList());
+        } catch (KafkaException e) {
+            log.warn("Failed to relay outbox events, retrying on next poll: {}", e.getMessage());
+            release(claimedBy);
+            return false;
+        }
+        try {
+            outboxEventRepository.deleteClaimed(claimedBy);
+        } catch (DataAccessException e) {
+            log.warn("Failed to delete relayed outbox events, they will be relayed again once the claim expires: {}",
+                    e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    private void release(String claimedBy) {
+        try {
+            outboxEventRepository.releaseClaimed(claimedBy);
+        } catch (DataAccessException e) {
+            log.warn("Failed to release outbox claim, events will be relayed once it expires: {}", e.getMessage());
+        }
+    }
+}
@@ -1,24 +1,122 @@
 package by.osinovi.paymentservice.kafka;
 
 import by.osinovi.paymentservice.entity.Payment;
-import lombok.RequiredArgsConstructor;
+import by.osinovi.paymentservice.util.LogSampler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.KafkaException;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class PaymentProducer {
+    private static final Duration LOG_SAMPLE_INTERVAL = Duration.ofSeconds(10);
+
     private final KafkaTemplate<String, Payment> paymentKafkaTemplate;
+    private final Semaphore inFlightPermits;
+    private final Counter failedSendCounter;
+    private final Timer successfulSendTimer;
+    private final Timer failedSendTimer;
+    private final LogSampler failedSendLogSampler = new LogSampler(LOG_SAMPLE_INTERVAL, Clock.systemUTC());
 
     @Value("${spring.kafka.topics.payments}")
     private String paymentsTopic;
 
-    public void sendCreatePaymentEvent(Payment payment) {
-        log.warn("Sending payment event to topic {}: {}", paymentsTopic, payment);
-        paymentKafkaTemplate.send(paymentsTopic, String.valueOf(payment.getId()), payment);
-        log.warn("Payment event sent successfully");
+    @Value("${payment.producer.in-flight-timeout}")
+    private Duration inFlightTimeout;
+
+    public PaymentProducer(KafkaTemplate<String, Payment> paymentKafkaTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${payment.producer.max-in-flight}") int maxInFlight) {
+        this.paymentKafkaTemplate = paymentKafkaTemplate;
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        this.failedSendCounter = Counter.builder("payment.events.failed")
+                .description("Payment events whose send failed, leaving the enclosing transaction to abort")
+                .register(meterRegistry);
+        this.successfulSendTimer = sendTimer(meterRegistry, "success");
+        this.failedSendTimer = sendTimer(meterRegistry, "failure");
+        Gauge.builder("payment.events.in-flight", inFlightPermits, permits -> maxInFlight - permits.availablePermits())
+                .description("Payment events sent but not yet acknowledged by the broker")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<SendResult<String, Payment>> sendCreatePaymentEvent(Payment payment) {
+        long startNanos = System.nanoTime();
+        acquireInFlightPermit();
+        CompletableFuture<SendResult<String, Payment>> sendFuture;
+        try {
+            sendFuture = paymentKafkaTemplate.send(paymentsTopic, String.valueOf(payment.getId()), payment);
+        } catch (RuntimeException e) {
+            inFlightPermits.release();
+            throw e;
+        }
+        return sendFuture.whenComplete((result, exception) -> {
+            (exception == null ? successfulSendTimer : failedSendTimer)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            onSendCompleted(payment, result, exception);
+        });
+    }
+
+    public CompletableFuture<Void> sendCreatePaymentEvents(List<Payment> payments) {
+        log.debug("Sending {} payment events to topic {}", payments.size(), paymentsTopic);
+        return CompletableFuture.allOf(payments.stream()
+                .map(this::sendCreatePaymentEvent)
+                .toArray(CompletableFuture[]::new));
+    }
+
+    public void publishCreatePaymentEvents(List<Payment> payments) {
+        paymentKafkaTemplate.executeInTransaction(operations -> {
+            for (Payment payment : payments) {
+                operations.send(paymentsTopic, String.valueOf(payment.getId()), payment);
+            }
+            return payments.size();
+        });
+    }
+
+    private static Timer sendTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("payment.events.send")
+                .description("Time from handing a payment event to the producer until the broker acknowledged it")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void acquireInFlightPermit() {
+        try {
+            if (!inFlightPermits.tryAcquire(inFlightTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new KafkaException("Timed out waiting for in-flight payment events to complete");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while waiting for in-flight payment events to complete", e);
+        }
+    }
+
+    private void onSendCompleted(Payment payment, SendResult<String, Payment> result, Throwable exception) {
+        inFlightPermits.release();
+        if (exception == null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Payment event {} sent to {}-{}@{}", payment.getId(), result.getRecordMetadata().topic(),
+                        result.getRecordMetadata().partition(), result.getRecordMetadata().offset());
+            }
+            return;
+        }
+        failedSendCounter.increment();
+        if (failedSendLogSampler.tryAcquire()) {
+            log.warn("Failed to send payment event {}, leaving redelivery to the aborted transaction, "
+                            + "{} similar failures suppressed: {}", payment.getId(), failedSendLogSampler.drainSuppressed(), exception.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
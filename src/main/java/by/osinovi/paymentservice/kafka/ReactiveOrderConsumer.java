@@ -0,0 +1,122 @@
+package by.osinovi.paymentservice.kafka;
+
+import by.osinovi.paymentservice.dto.OrderMessage;
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.service.ReactivePaymentService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "payment.pipeline", havingValue = "reactive")
+public class ReactiveOrderConsumer {
+    private final KafkaReceiver<String, OrderMessage> orderReceiver;
+    private final ReactivePaymentService reactivePaymentService;
+    private final PaymentProducer paymentProducer;
+
+    @Value("${payment.reactive.batch-size}")
+    private int batchSize;
+
+    @Value("${payment.reactive.batch-timeout}")
+    private Duration batchTimeout;
+
+    @Value("${payment.reactive.retry-backoff}")
+    private Duration retryBackoff;
+
+    private Disposable subscription;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (subscription != null) {
+            return;
+        }
+        subscription = orderReceiver.receive()
+                .bufferTimeout(batchSize, batchTimeout, true)
+                .concatMap(this::handleCreateOrders, 1)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, retryBackoff)
+                        .maxBackoff(retryBackoff.multipliedBy(30))
+                        .doBeforeRetry(signal -> log.warn("Reactive order pipeline failed, resubscribing: {}",
+                                signal.failure().getMessage())))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+    }
+
+    Mono<Void> handleCreateOrders(List<ReceiverRecord<String, OrderMessage>> records) {
+        List<ReceiverRecord<String, OrderMessage>> orderRecords = records.stream()
+                .filter(this::isOrder)
+                .toList();
+        return createPayments(orderRecords)
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    log.warn("Batch of {} orders was rejected, processing them one by one: {}",
+                            orderRecords.size(), e.getMessage());
+                    return Flux.fromIterable(orderRecords)
+                            .concatMap(record -> createPayments(List.of(record))
+                                    .onErrorResume(IllegalArgumentException.class, recordError -> {
+                                        log.error("Skipping order record {}-{}@{}: {}", record.topic(),
+                                                record.partition(), record.offset(), recordError.getMessage());
+                                        return Mono.empty();
+                                    }))
+                            .then();
+                })
+                .then(Mono.fromRunnable(() -> records.forEach(record -> record.receiverOffset().acknowledge())));
+    }
+
+    private Mono<Void> createPayments(List<ReceiverRecord<String, OrderMessage>> records) {
+        if (records.isEmpty()) {
+            return Mono.empty();
+        }
+        List<OrderMessage> orderMessages = records.stream()
+                .map(ConsumerRecord::value)
+                .toList();
+        return reactivePaymentService.createPayments(orderMessages)
+                .collectList()
+                .flatMap(this::publishCreatePaymentEvents);
+    }
+
+    private boolean isOrder(ReceiverRecord<String, OrderMessage> record) {
+        if (record.value() != null) {
+            return true;
+        }
+        if (record.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) != null) {
+            log.error("Skipping order record {}-{}@{} that could not be deserialized",
+                    record.topic(), record.partition(), record.offset());
+        } else {
+            log.warn("Skipping empty order record {}-{}@{}", record.topic(), record.partition(), record.offset());
+        }
+        return false;
+    }
+
+    private Mono<Void> publishCreatePaymentEvents(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.<Void>fromRunnable(() -> paymentProducer.publishCreatePaymentEvents(payments))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
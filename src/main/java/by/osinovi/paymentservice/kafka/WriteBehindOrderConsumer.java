@@ -0,0 +1,84 @@
+package by.osinovi.paymentservice.kafka;
+
+import by.osinovi.paymentservice.dto.OrderMessage;
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.service.PaymentService;
+import by.osinovi.paymentservice.util.OrderLogContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "spring.kafka.listener.type", havingValue = "single", matchIfMissing = true)
+@ConditionalOnBooleanProperty(name = "payment.outbox.enabled", havingValue = false, matchIfMissing = true)
+@ConditionalOnProperty(name = "payment.pipeline", havingValue = "blocking", matchIfMissing = true)
+@ConditionalOnBooleanProperty("payment.write-behind.enabled")
+public class WriteBehindOrderConsumer {
+    static final String LISTENER_ID = "write-behind-orders";
+
+    private final PaymentService paymentService;
+    private final PaymentProducer paymentProducer;
+    private final KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+    private final Queue<PersistedPayment> persistedPayments = new ConcurrentLinkedQueue<>();
+
+    @KafkaListener(id = LISTENER_ID, idIsGroup = false, topics = "${spring.kafka.topics.orders}",
+            groupId = "${spring.kafka.consumer.group-id}", containerFactory = "writeBehindListenerContainerFactory")
+    public void handleCreateOrder(OrderMessage orderMessage, Acknowledgment acknowledgment) {
+        try (OrderLogContext ignored = OrderLogContext.of(orderMessage)) {
+            paymentService.createPaymentWriteBehind(orderMessage).whenComplete((payment, exception) -> {
+                if (exception != null) {
+                    try (OrderLogContext callbackContext = OrderLogContext.of(orderMessage)) {
+                        onPersistFailure(orderMessage, exception);
+                    }
+                    return;
+                }
+                persistedPayments.add(new PersistedPayment(payment, acknowledgment));
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.write-behind.flush-interval-ms}")
+    public void publishPersistedPayments() {
+        List<PersistedPayment> batch = new ArrayList<>();
+        for (PersistedPayment persisted = persistedPayments.poll(); persisted != null; persisted = persistedPayments.poll()) {
+            batch.add(persisted);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            paymentProducer.publishCreatePaymentEvents(batch.stream().map(PersistedPayment::payment).toList());
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish {} persisted payments, retrying on next run: {}", batch.size(), e.getMessage());
+            persistedPayments.addAll(batch);
+            return;
+        }
+        batch.forEach(persisted -> persisted.acknowledgment().acknowledge());
+    }
+
+    private void onPersistFailure(OrderMessage orderMessage, Throwable exception) {
+        log.error("Failed to persist payment for order {}, leaving it unacknowledged and pausing consumption: {}",
+                orderMessage.getOrderId(), exception.getMessage());
+        MessageListenerContainer container = kafkaListenerEndpointRegistry.getListenerContainer(LISTENER_ID);
+        if (container != null) {
+            container.pause();
+        }
+    }
+
+    private record PersistedPayment(Payment payment, Acknowledgment acknowledgment) {
+    }
+}
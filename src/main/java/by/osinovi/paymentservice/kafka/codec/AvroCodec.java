@@ -0,0 +1,12 @@
+package by.osinovi.paymentservice.kafka.codec;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+
+public interface AvroCodec<T> {
+    String subject();
+
+    GenericRecord toRecord(T value, Schema schema);
+
+    T fromRecord(GenericRecord record);
+}
@@ -0,0 +1,67 @@
+package by.osinovi.paymentservice.kafka.codec;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class AvroDeserializer<T> implements Deserializer<T> {
+
+    private final LocalSchemaRegistry schemaRegistry;
+    private final AvroCodec<T> codec;
+    private final Schema readerSchema;
+    private final Deserializer<T> jsonDeserializer;
+    private final Map<Integer, DatumReader<GenericRecord>> datumReadersByVersion = new ConcurrentHashMap<>();
+
+    public AvroDeserializer(LocalSchemaRegistry schemaRegistry, AvroCodec<T> codec, Deserializer<T> jsonDeserializer) {
+        this.schemaRegistry = schemaRegistry;
+        this.codec = codec;
+        this.readerSchema = schemaRegistry.getSchema(codec.subject(), schemaRegistry.latestVersion(codec.subject()));
+        this.jsonDeserializer = jsonDeserializer;
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length > 0 && data[0] == '{') {
+            return headers == null
+                    ? jsonDeserializer.deserialize(topic, data)
+                    : jsonDeserializer.deserialize(topic, headers, data);
+        }
+        if (data.length < AvroSerializer.HEADER_LENGTH || data[0] != AvroSerializer.MAGIC_BYTE) {
+            throw new SerializationException("Unknown wire format for " + codec.subject() + " on topic " + topic);
+        }
+        int version = ByteBuffer.wrap(data, 1, 4).getInt();
+        DatumReader<GenericRecord> datumReader = datumReadersByVersion.computeIfAbsent(version,
+                writerVersion -> new GenericDatumReader<>(schemaRegistry.getSchema(codec.subject(), writerVersion),
+                        readerSchema));
+        try {
+            return codec.fromRecord(datumReader.read(null, DecoderFactory.get().binaryDecoder(data,
+                    AvroSerializer.HEADER_LENGTH, data.length - AvroSerializer.HEADER_LENGTH, null)));
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Failed to deserialize " + codec.subject() + " v" + version
+                    + " from topic " + topic, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
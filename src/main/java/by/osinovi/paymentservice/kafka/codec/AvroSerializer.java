@@ -0,0 +1,52 @@
+package by.osinovi.paymentservice.kafka.codec;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+public class AvroSerializer<T> implements Serializer<T> {
+
+    static final byte MAGIC_BYTE = 0x0;
+    static final int HEADER_LENGTH = 5;
+
+    private final AvroCodec<T> codec;
+    private final Schema schema;
+    private final int version;
+    private final DatumWriter<GenericRecord> datumWriter;
+
+    public AvroSerializer(LocalSchemaRegistry schemaRegistry, AvroCodec<T> codec) {
+        this.codec = codec;
+        this.version = schemaRegistry.latestVersion(codec.subject());
+        this.schema = schemaRegistry.getSchema(codec.subject(), version);
+        this.datumWriter = new GenericDatumWriter<>(schema);
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        if (data == null) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        out.write(MAGIC_BYTE);
+        out.write(version >>> 24);
+        out.write(version >>> 16);
+        out.write(version >>> 8);
+        out.write(version);
+        try {
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+            datumWriter.write(codec.toRecord(data, schema), encoder);
+            encoder.flush();
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Failed to serialize " + codec.subject() + " for topic " + topic, e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,87 @@
+package by.osinovi.paymentservice.kafka.codec;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.GenericRecord;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+final class AvroValues {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+
+    private AvroValues() {
+    }
+
+    static Schema nonNull(Schema schema) {
+        if (schema.getType() != Schema.Type.UNION) {
+            return schema;
+        }
+        return schema.getTypes().stream()
+                .filter(type -> type.getType() != Schema.Type.NULL)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    static GenericRecord toDecimal(BigDecimal value, Schema fieldSchema) {
+        if (value == null) {
+            return null;
+        }
+        GenericRecord decimal = new GenericData.Record(nonNull(fieldSchema));
+        decimal.put("unscaled", ByteBuffer.wrap(value.unscaledValue().toByteArray()));
+        decimal.put("scale", value.scale());
+        return decimal;
+    }
+
+    static BigDecimal fromDecimal(Object value) {
+        if (value == null) {
+            return null;
+        }
+        GenericRecord decimal = (GenericRecord) value;
+        ByteBuffer unscaled = ((ByteBuffer) decimal.get("unscaled")).duplicate();
+        byte[] bytes = new byte[unscaled.remaining()];
+        unscaled.get(bytes);
+        return new BigDecimal(new BigInteger(bytes), (Integer) decimal.get("scale"));
+    }
+
+    static GenericFixed toUuid(UUID value, Schema fieldSchema) {
+        if (value == null) {
+            return null;
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(16)
+                .putLong(value.getMostSignificantBits())
+                .putLong(value.getLeastSignificantBits());
+        return new GenericData.Fixed(nonNull(fieldSchema), bytes.array());
+    }
+
+    static UUID fromUuid(Object value) {
+        if (value == null) {
+            return null;
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(((GenericFixed) value).bytes());
+        return new UUID(bytes.getLong(), bytes.getLong());
+    }
+
+    static Long toMicros(LocalDateTime value) {
+        return value == null ? null : ChronoUnit.MICROS.between(EPOCH, value);
+    }
+
+    static LocalDateTime fromMicros(Object value) {
+        return value == null ? null : EPOCH.plus((Long) value, ChronoUnit.MICROS);
+    }
+
+    static <E extends Enum<E>> GenericData.EnumSymbol toEnum(E value, Schema fieldSchema) {
+        return value == null ? null : new GenericData.EnumSymbol(nonNull(fieldSchema), value.name());
+    }
+
+    static <E extends Enum<E>> E fromEnum(Object value, Class<E> type) {
+        return value == null ? null : Enum.valueOf(type, value.toString());
+    }
+}
@@ -0,0 +1,58 @@
+package by.osinovi.paymentservice.kafka.codec;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Component
+@Slf4j
+public class LocalSchemaRegistry {
+
+    private static final Pattern SCHEMA_PATH = Pattern.compile(".*/([^/]+)/v(\\d+)\\.avsc$");
+
+    private final Map<String, NavigableMap<Integer, Schema>> schemasBySubject = new HashMap<>();
+
+    public LocalSchemaRegistry(@Value("${payment.kafka.schema-location}") String schemaLocation) throws IOException {
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(schemaLocation)) {
+            Matcher matcher = SCHEMA_PATH.matcher(resource.getURL().toString());
+            if (!matcher.matches()) {
+                continue;
+            }
+            try (InputStream schema = resource.getInputStream()) {
+                schemasBySubject.computeIfAbsent(matcher.group(1), subject -> new TreeMap<>())
+                        .put(Integer.parseInt(matcher.group(2)), new Schema.Parser().parse(schema));
+            }
+        }
+        schemasBySubject.forEach((subject, versions) ->
+                log.info("Loaded schema versions {} for subject {}", versions.keySet(), subject));
+    }
+
+    public int latestVersion(String subject) {
+        NavigableMap<Integer, Schema> versions = schemasBySubject.get(subject);
+        if (versions == null) {
+            throw new SerializationException("No schemas registered for subject " + subject);
+        }
+        return versions.lastKey();
+    }
+
+    public Schema getSchema(String subject, int version) {
+        Schema schema = schemasBySubject.getOrDefault(subject, new TreeMap<>()).get(version);
+        if (schema == null) {
+            throw new SerializationException("Unknown schema version " + version + " for subject " + subject);
+        }
+        return schema;
+    }
+}
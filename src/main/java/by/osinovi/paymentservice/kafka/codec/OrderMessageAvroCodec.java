@@ -0,0 +1,32 @@
+package by.osinovi.paymentservice.kafka.codec;
+
+import by.osinovi.paymentservice.dto.OrderMessage;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+public class OrderMessageAvroCodec implements AvroCodec<OrderMessage> {
+
+    @Override
+    public String subject() {
+        return "order-message";
+    }
+
+    @Override
+    public GenericRecord toRecord(OrderMessage orderMessage, Schema schema) {
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("orderId", orderMessage.getOrderId());
+        record.put("userId", orderMessage.getUserId());
+        record.put("totalAmount", AvroValues.toDecimal(orderMessage.getTotalAmount(),
+                schema.getField("totalAmount").schema()));
+        return record;
+    }
+
+    @Override
+    public OrderMessage fromRecord(GenericRecord record) {
+        return new OrderMessage(
+                (Long) record.get("orderId"),
+                (Long) record.get("userId"),
+                AvroValues.fromDecimal(record.get("totalAmount")));
+    }
+}
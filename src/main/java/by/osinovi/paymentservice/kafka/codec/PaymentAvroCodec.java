@@ -0,0 +1,39 @@
+package by.osinovi.paymentservice.kafka.codec;
+
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.util.PaymentStatus;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+public class PaymentAvroCodec implements AvroCodec<Payment> {
+
+    @Override
+    public String subject() {
+        return "payment";
+    }
+
+    @Override
+    public GenericRecord toRecord(Payment payment, Schema schema) {
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("id", AvroValues.toUuid(payment.getId(), schema.getField("id").schema()));
+        record.put("orderId", payment.getOrderId());
+        record.put("userId", payment.getUserId());
+        record.put("status", AvroValues.toEnum(payment.getStatus(), schema.getField("status").schema()));
+        record.put("timestamp", AvroValues.toMicros(payment.getTimestamp()));
+        record.put("payment_amount", AvroValues.toDecimal(payment.getPayment_amount(),
+                schema.getField("payment_amount").schema()));
+        return record;
+    }
+
+    @Override
+    public Payment fromRecord(GenericRecord record) {
+        return new Payment(
+                AvroValues.fromUuid(record.get("id")),
+                (Long) record.get("orderId"),
+                (Long) record.get("userId"),
+                AvroValues.fromEnum(record.get("status"), PaymentStatus.class),
+                AvroValues.fromMicros(record.get("timestamp")),
+                AvroValues.fromDecimal(record.get("payment_amount")));
+    }
+}
@@ -0,0 +1,11 @@
+package by.osinovi.paymentservice.repository;
+
+import by.osinovi.paymentservice.entity.OutboxEvent;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends MongoRepository<OutboxEvent, UUID>, OutboxEventRepositoryCustom {
+}
@@ -0,0 +1,15 @@
+package by.osinovi.paymentservice.repository;
+
+import by.osinovi.paymentservice.entity.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepositoryCustom {
+
+    List<OutboxEvent> claimOldest(String claimedBy, LocalDateTime now, LocalDateTime claimedUntil, int limit);
+
+    void deleteClaimed(String claimedBy);
+
+    void releaseClaimed(String claimedBy);
+}
@@ -0,0 +1,54 @@
+package by.osinovi.paymentservice.repository;
+
+import by.osinovi.paymentservice.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class OutboxEventRepositoryCustomImpl implements OutboxEventRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<OutboxEvent> claimOldest(String claimedBy, LocalDateTime now, LocalDateTime claimedUntil, int limit) {
+        Query candidates = Query.query(claimable(now))
+                .with(Sort.by("createdAt"))
+                .limit(limit);
+        candidates.fields().include("id");
+        List<UUID> ids = mongoTemplate.find(candidates, OutboxEvent.class).stream()
+                .map(OutboxEvent::getId)
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        mongoTemplate.updateMulti(Query.query(Criteria.where("id").in(ids).andOperator(claimable(now))),
+                new Update().set("claimedBy", claimedBy).set("claimedUntil", claimedUntil), OutboxEvent.class);
+        return mongoTemplate.find(Query.query(Criteria.where("claimedBy").is(claimedBy))
+                .with(Sort.by("createdAt")), OutboxEvent.class);
+    }
+
+    @Override
+    public void deleteClaimed(String claimedBy) {
+        mongoTemplate.remove(Query.query(Criteria.where("claimedBy").is(claimedBy)), OutboxEvent.class);
+    }
+
+    @Override
+    public void releaseClaimed(String claimedBy) {
+        mongoTemplate.updateMulti(Query.query(Criteria.where("claimedBy").is(claimedBy)),
+                new Update().unset("claimedBy").unset("claimedUntil"), OutboxEvent.class);
+    }
+
+    private static Criteria claimable(LocalDateTime now) {
+        return new Criteria().orOperator(
+                Criteria.where("claimedUntil").is(null),
+                Criteria.where("claimedUntil").lte(now));
+    }
+}
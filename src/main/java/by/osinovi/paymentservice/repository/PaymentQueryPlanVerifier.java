@@ -0,0 +1,110 @@
+package by.osinovi.paymentservice.repository;
+
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.util.PaymentStatus;
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "payment.mongo.query-plan-check.enabled", havingValue = "true")
+public class PaymentQueryPlanVerifier {
+
+    private static final String COLLECTION_SCAN = "COLLSCAN";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${payment.mongo.query-plan-check.fail-on-collscan}")
+    private boolean failOnCollectionScan;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyQueryPlans() {
+        List<String> collectionScans;
+        try {
+            collectionScans = findCollectionScans();
+        } catch (DataAccessException | MongoException e) {
+            log.warn("Skipping payment query plan check: {}", e.getMessage());
+            return;
+        }
+        if (collectionScans.isEmpty()) {
+            log.info("All payment repository queries are served by indexes");
+            return;
+        }
+        log.warn("Payment repository queries planned as {}: {}", COLLECTION_SCAN, collectionScans);
+        if (failOnCollectionScan) {
+            throw new IllegalStateException("Payment repository queries require collection scans: " + collectionScans);
+        }
+    }
+
+    public List<String> findCollectionScans() {
+        MongoCollection<Document> payments = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Payment.class));
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, Function<MongoCollection<Document>, Document>> explains = new LinkedHashMap<>();
+        explains.put("findByUserId", collection -> collection
+                .find(new Document("user_id", 0L))
+                .explain(ExplainVerbosity.QUERY_PLANNER));
+        explains.put("findByOrderId", collection -> collection
+                .find(new Document("order_id", 0L))
+                .explain(ExplainVerbosity.QUERY_PLANNER));
+        explains.put("findByStatusIn", collection -> collection
+                .find(new Document("status", new Document("$in", List.of(PaymentStatus.FAILED.name()))))
+                .explain(ExplainVerbosity.QUERY_PLANNER));
+        explains.put("sumPaymentAmountByDateRange", collection -> collection
+                .aggregate(List.of(new Document("$match", new Document("timestamp",
+                        new Document("$gte", now.minusDays(1)).append("$lte", now)))))
+                .explain(ExplainVerbosity.QUERY_PLANNER));
+
+        List<String> collectionScans = new ArrayList<>();
+        explains.forEach((query, explain) -> {
+            Document plan = explain.apply(payments);
+            if (containsCollectionScan(plan, false)) {
+                collectionScans.add(query);
+            } else {
+                log.debug("Query {} uses an index", query);
+            }
+        });
+        return collectionScans;
+    }
+
+    static boolean containsCollectionScan(Object node, boolean inWinningPlan) {
+        if (node instanceof Document document) {
+            if (inWinningPlan && COLLECTION_SCAN.equals(document.get("stage"))) {
+                return true;
+            }
+            for (Map.Entry<String, Object> entry : document.entrySet()) {
+                boolean winningPlan = inWinningPlan || "winningPlan".equals(entry.getKey());
+                if (!"rejectedPlans".equals(entry.getKey()) && containsCollectionScan(entry.getValue(), winningPlan)) {
+                    return true;
+                }
+            }
+        } else if (node instanceof Collection<?> nodes) {
+            for (Object child : nodes) {
+                if (containsCollectionScan(child, inWinningPlan)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -2,28 +2,61 @@ package by.osinovi.paymentservice.repository;
 
 import by.osinovi.paymentservice.entity.Payment;
 import by.osinovi.paymentservice.util.PaymentStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.ReadPreference;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface PaymentRepository extends MongoRepository<Payment, UUID> {
+public interface PaymentRepository extends MongoRepository<Payment, UUID>, PaymentRepositoryCustom {
+    @ReadPreference("secondaryPreferred")
     List<Payment> findByUserId(Long userId);
 
+    @ReadPreference("primary")
+    List<Payment> findAllByUserId(Long userId);
+
+    @ReadPreference("secondaryPreferred")
+    Slice<Payment> findByUserId(Long userId, Pageable pageable);
+
+    @ReadPreference("secondaryPreferred")
+    Window<PaymentSummary> findByUserIdOrderByTimestampAsc(Long userId, ScrollPosition position, Limit limit);
+
     List<Payment> findByOrderId(Long orderId);
 
+    Optional<Payment> findFirstByOrderId(Long orderId);
+
+    List<Payment> findByOrderIdIn(Collection<Long> orderIds);
+
+    @ReadPreference("secondaryPreferred")
     List<Payment> findByStatusIn(List<PaymentStatus> statuses);
 
+    @ReadPreference("secondaryPreferred")
+    Slice<Payment> findByStatusIn(List<PaymentStatus> statuses, Pageable pageable);
+
+    @ReadPreference("secondaryPreferred")
+    Window<PaymentSummary> findByStatusInOrderByTimestampAsc(List<PaymentStatus> statuses, ScrollPosition position,
+                                                            Limit limit);
+
+    @ReadPreference("secondaryPreferred")
     @Aggregation(pipeline = {
             "{ $match: { timestamp: { $gte: ?0, $lte: ?1 } } }",
-            "{ $group: { _id: null, total: { $sum: { $toDouble: '$payment_amount' } } } }"
+            "{ $group: { _id: null, total: { $sum: { $toDecimal: '$payment_amount' } } } }"
     })
-    Optional<Double> sumPaymentAmountByDateRange(LocalDateTime startDate, LocalDateTime endDate);
+    Optional<BigDecimal> sumPaymentAmountByDateRange(LocalDateTime startDate, LocalDateTime endDate);
 
     boolean existsById(UUID id);
 
     void deleteById(UUID id);
+
+    long removeById(UUID id);
 }
@@ -0,0 +1,16 @@
+package by.osinovi.paymentservice.repository;
+
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.util.PaymentStatus;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface PaymentRepositoryCustom {
+    Stream<PaymentSummary> streamByUserId(Long userId);
+
+    Stream<PaymentSummary> streamByStatusIn(Collection<PaymentStatus> statuses);
+
+    List<Payment> insertAllUnordered(List<Payment> payments);
+}
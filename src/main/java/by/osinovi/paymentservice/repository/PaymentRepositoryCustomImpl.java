@@ -0,0 +1,64 @@
+package by.osinovi.paymentservice.repository;
+
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.util.PaymentStatus;
+import com.mongodb.ErrorCategory;
+import com.mongodb.ReadPreference;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class PaymentRepositoryCustomImpl implements PaymentRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${payment.mongo.cursor-batch-size}")
+    private int cursorBatchSize;
+
+    @Override
+    public Stream<PaymentSummary> streamByUserId(Long userId) {
+        return stream(Query.query(Criteria.where("userId").is(userId)));
+    }
+
+    @Override
+    public Stream<PaymentSummary> streamByStatusIn(Collection<PaymentStatus> statuses) {
+        return stream(Query.query(Criteria.where("status").in(statuses)));
+    }
+
+    @Override
+    public List<Payment> insertAllUnordered(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return List.of();
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Payment.class)
+                    .insert(payments)
+                    .execute();
+            return List.of();
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream()
+                    .anyMatch(error -> ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY)) {
+                throw e;
+            }
+            return e.getErrors().stream()
+                    .map(error -> payments.get(error.getIndex()))
+                    .toList();
+        }
+    }
+
+    private Stream<PaymentSummary> stream(Query query) {
+        return mongoTemplate.query(Payment.class)
+                .as(PaymentSummary.class)
+                .matching(query.cursorBatchSize(cursorBatchSize).withReadPreference(ReadPreference.secondaryPreferred()))
+                .stream();
+    }
+}
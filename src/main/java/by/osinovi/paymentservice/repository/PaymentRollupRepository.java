@@ -0,0 +1,14 @@
+package by.osinovi.paymentservice.repository;
+
+import by.osinovi.paymentservice.entity.PaymentRollup;
+import by.osinovi.paymentservice.util.RollupGranularity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PaymentRollupRepository extends MongoRepository<PaymentRollup, String>, PaymentRollupRepositoryCustom {
+
+    Optional<PaymentRollup> findFirstByGranularityOrderByBucketStartAsc(RollupGranularity granularity);
+}
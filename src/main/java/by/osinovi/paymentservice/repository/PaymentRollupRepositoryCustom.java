@@ -0,0 +1,14 @@
+package by.osinovi.paymentservice.repository;
+
+import by.osinovi.paymentservice.entity.PaymentRollup;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface PaymentRollupRepositoryCustom {
+
+    void incrementAll(String flushId, Collection<PaymentRollup> increments);
+
+    Optional<BigDecimal> sumTotalByBucketRanges(Collection<RollupBucketRange> ranges);
+}
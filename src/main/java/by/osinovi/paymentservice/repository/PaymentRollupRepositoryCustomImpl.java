@@ -0,0 +1,81 @@
+package by.osinovi.paymentservice.repository;
+
+import by.osinovi.paymentservice.entity.PaymentRollup;
+import com.mongodb.ErrorCategory;
+import com.mongodb.ReadPreference;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Optional;
+
+public class PaymentRollupRepositoryCustomImpl implements PaymentRollupRepositoryCustom {
+
+    private static final String APPLIED_FLUSH_IDS = "applied_flush_ids";
+    private static final int APPLIED_FLUSH_IDS_KEPT = 32;
+
+    private final MongoTemplate mongoTemplate;
+
+    public PaymentRollupRepositoryCustomImpl(@Qualifier("rollupMongoTemplate") MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void incrementAll(String flushId, Collection<PaymentRollup> increments) {
+        if (increments.isEmpty()) {
+            return;
+        }
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PaymentRollup.class);
+        for (PaymentRollup increment : increments) {
+            Update update = new Update()
+                    .setOnInsert("granularity", increment.getGranularity())
+                    .setOnInsert("bucketStart", increment.getBucketStart())
+                    .setOnInsert("status", increment.getStatus())
+                    .inc("count", increment.getCount())
+                    .inc("total", new Decimal128(increment.getTotal()));
+            update.push(APPLIED_FLUSH_IDS).slice(-APPLIED_FLUSH_IDS_KEPT).each(flushId);
+            Query query = Query.query(Criteria.where("id").is(increment.getId()).and(APPLIED_FLUSH_IDS).ne(flushId));
+            if (increment.getCount() < 0) {
+                bulkOperations.updateOne(query, update);
+            } else {
+                bulkOperations.upsert(query, update);
+            }
+        }
+        try {
+            bulkOperations.execute();
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream()
+                    .anyMatch(error -> ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY)) {
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public Optional<BigDecimal> sumTotalByBucketRanges(Collection<RollupBucketRange> ranges) {
+        if (ranges.isEmpty()) {
+            return Optional.empty();
+        }
+        Criteria criteria = new Criteria().orOperator(ranges.stream()
+                .map(range -> Criteria.where("granularity").is(range.granularity())
+                        .and("bucketStart").gte(range.from()).lt(range.to()))
+                .toArray(Criteria[]::new));
+        TypedAggregation<PaymentRollup> aggregation = Aggregation.newAggregation(PaymentRollup.class,
+                Aggregation.match(criteria),
+                Aggregation.group().sum("total").as("total"))
+                .withOptions(AggregationOptions.builder().readPreference(ReadPreference.secondaryPreferred()).build());
+        return Optional.ofNullable(mongoTemplate.aggregate(aggregation, Document.class).getUniqueMappedResult())
+                .map(result -> result.get("total", Decimal128.class).bigDecimalValue());
+    }
+}
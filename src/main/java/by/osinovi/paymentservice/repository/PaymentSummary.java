@@ -0,0 +1,19 @@
+package by.osinovi.paymentservice.repository;
+
+import by.osinovi.paymentservice.util.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface PaymentSummary {
+    UUID getId();
+
+    Long getOrderId();
+
+    PaymentStatus getStatus();
+
+    LocalDateTime getTimestamp();
+
+    BigDecimal getPayment_amount();
+}
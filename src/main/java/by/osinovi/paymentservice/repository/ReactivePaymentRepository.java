@@ -0,0 +1,15 @@
+package by.osinovi.paymentservice.repository;
+
+import by.osinovi.paymentservice.entity.Payment;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface ReactivePaymentRepository extends ReactiveMongoRepository<Payment, UUID> {
+    Mono<Payment> findFirstByOrderId(Long orderId);
+
+    Flux<Payment> findByOrderIdIn(Collection<Long> orderIds);
+}
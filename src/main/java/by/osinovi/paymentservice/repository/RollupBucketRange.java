@@ -0,0 +1,8 @@
+package by.osinovi.paymentservice.repository;
+
+import by.osinovi.paymentservice.util.RollupGranularity;
+
+import java.time.LocalDateTime;
+
+public record RollupBucketRange(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+}
@@ -1,7 +1,10 @@
 package by.osinovi.paymentservice.service;
 
 import by.osinovi.paymentservice.util.PaymentStatus;
+import reactor.core.publisher.Mono;
 
 public interface ExternalAPIService {
     PaymentStatus getStatus();
+
+    Mono<PaymentStatus> getStatusAsync();
 }
@@ -0,0 +1,16 @@
+package by.osinovi.paymentservice.service;
+
+import by.osinovi.paymentservice.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface PaymentRollupService {
+    void record(Payment payment);
+
+    void remove(Payment payment);
+
+    void flush();
+
+    BigDecimal sumPaymentAmount(LocalDateTime startDate, LocalDateTime endDate);
+}
@@ -3,7 +3,20 @@ package by.osinovi.paymentservice.service;
 import by.osinovi.paymentservice.dto.OrderMessage;
 import by.osinovi.paymentservice.entity.Payment;
 
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 public interface PaymentService {
     Payment createPayment(OrderMessage orderMessage);
 
+    CompletableFuture<Payment> createPaymentWriteBehind(OrderMessage orderMessage);
+
+    List<Payment> createPayments(List<OrderMessage> orderMessages);
+
+    List<Payment> getPaymentsByOrderId(Long orderId);
+
+    List<Payment> getPaymentsByUserId(Long userId);
+
+    void deletePayment(UUID id);
 }
@@ -0,0 +1,11 @@
+package by.osinovi.paymentservice.service;
+
+import by.osinovi.paymentservice.dto.OrderMessage;
+import by.osinovi.paymentservice.entity.Payment;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+public interface ReactivePaymentService {
+    Flux<Payment> createPayments(List<OrderMessage> orderMessages);
+}
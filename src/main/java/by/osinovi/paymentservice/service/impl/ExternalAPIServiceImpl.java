@@ -1,48 +1,213 @@
 package by.osinovi.paymentservice.service.impl;
 
 import by.osinovi.paymentservice.service.ExternalAPIService;
+import by.osinovi.paymentservice.util.CircuitBreaker;
+import by.osinovi.paymentservice.util.LogSampler;
 import by.osinovi.paymentservice.util.PaymentStatus;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.Executors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ExternalAPIServiceImpl implements ExternalAPIService {
 
+    private static final String RANDOM_NUMBER_URI = "/integers/?num=1&min=1&max=100&col=1&base=10&format=plain&rnd=new";
+    private static final Duration LOG_SAMPLE_INTERVAL = Duration.ofSeconds(10);
+
     private final RestClient restClient;
+    private final WebClient webClient;
+    private final RandomNumberPool randomNumberPool;
+    private final CircuitBreaker randomApiCircuitBreaker;
+    private final LocalRandomStatusSource localRandomStatusSource;
+    private final MeterRegistry meterRegistry;
+    private final Timer statusTimer;
+    private final Map<PaymentStatus, Counter> statusCounters = new EnumMap<>(PaymentStatus.class);
+    private final LogSampler apiErrorLogSampler = new LogSampler(LOG_SAMPLE_INTERVAL, Clock.systemUTC());
+    private final LogSampler fallbackLogSampler = new LogSampler(LOG_SAMPLE_INTERVAL, Clock.systemUTC());
+    private volatile Scheduler virtualThreadScheduler;
+
+    @Value("${random-api.fallback.enabled}")
+    private boolean fallbackEnabled;
+
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean virtualThreadsEnabled;
+
+    public ExternalAPIServiceImpl(RestClient restClient,
+                                  WebClient webClient,
+                                  RandomNumberPool randomNumberPool,
+                                  CircuitBreaker randomApiCircuitBreaker,
+                                  LocalRandomStatusSource localRandomStatusSource,
+                                  MeterRegistry meterRegistry) {
+        this.restClient = restClient;
+        this.webClient = webClient;
+        this.randomNumberPool = randomNumberPool;
+        this.randomApiCircuitBreaker = randomApiCircuitBreaker;
+        this.localRandomStatusSource = localRandomStatusSource;
+        this.meterRegistry = meterRegistry;
+        this.statusTimer = Timer.builder("payment.status.resolve")
+                .description("Time to resolve a payment status from the pool, the random API or the local fallback")
+                .register(meterRegistry);
+        for (PaymentStatus status : PaymentStatus.values()) {
+            statusCounters.put(status, Counter.builder("payment.status")
+                    .description("Resolved payment statuses by outcome")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+    }
 
     @Override
     public PaymentStatus getStatus() {
+        PaymentStatus status = statusTimer.record(this::resolveStatus);
+        countStatus(status);
+        return status;
+    }
+
+    @Override
+    public Mono<PaymentStatus> getStatusAsync() {
+        if (virtualThreadsEnabled) {
+            return Mono.fromCallable(this::getStatus).subscribeOn(virtualThreadScheduler());
+        }
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return resolveStatusAsync().doFinally(signal -> sample.stop(statusTimer));
+        }).doOnNext(this::countStatus);
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (virtualThreadScheduler != null) {
+            virtualThreadScheduler.dispose();
+            virtualThreadScheduler = null;
+        }
+    }
+
+    private Scheduler virtualThreadScheduler() {
+        Scheduler scheduler = virtualThreadScheduler;
+        if (scheduler == null) {
+            synchronized (this) {
+                scheduler = virtualThreadScheduler;
+                if (scheduler == null) {
+                    scheduler = Schedulers.fromExecutorService(Executors.newThreadPerTaskExecutor(
+                            Thread.ofVirtual().name("random-api-", 0).factory()), "random-api");
+                    virtualThreadScheduler = scheduler;
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    private PaymentStatus resolveStatus() {
+        OptionalInt pooledNumber = randomNumberPool.poll();
+        if (pooledNumber.isPresent()) {
+            return toStatus(pooledNumber.getAsInt());
+        }
+        if (!randomApiCircuitBreaker.tryAcquirePermission()) {
+            return fallbackStatus(new RuntimeException("Random API circuit breaker is open"));
+        }
         try {
             String body = restClient.get()
-                    .uri("/integers/?num=1&min=1&max=100&col=1&base=10&format=plain&rnd=new")
+                    .uri(RANDOM_NUMBER_URI)
                     .retrieve()
                     .body(String.class);
 
-            if (body != null && !body.isBlank()) {
-                try {
-                    int randomNumber = Integer.parseInt(body.trim());
-                    log.info("Received random number: {}", randomNumber);
-                    if (randomNumber < 0) {
-                        log.error("Invalid random number: {}", randomNumber);
-                        throw new IllegalArgumentException("Random number cannot be negative");
-                    }
-                    return randomNumber % 2 == 0 ? PaymentStatus.SUCCESS : PaymentStatus.FAILED;
-                } catch (NumberFormatException e) {
-                    log.error("Failed to parse response as integer: {}", body, e);
-                    throw new RuntimeException("Invalid integer response from API", e);
-                }
-            } else {
-                log.error("Empty or invalid response from API");
-                throw new RuntimeException("Empty or invalid response from API");
-            }
+            PaymentStatus status = toStatus(body);
+            randomApiCircuitBreaker.onSuccess();
+            return status;
         } catch (RestClientException e) {
-            log.error("Error calling random API: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to call random API", e);
+            randomApiCircuitBreaker.onFailure();
+            logApiError(e);
+            return fallbackStatus(new RuntimeException("Failed to call random API", e));
+        } catch (RuntimeException e) {
+            randomApiCircuitBreaker.onFailure();
+            throw e;
+        }
+    }
+
+    private Mono<PaymentStatus> resolveStatusAsync() {
+        OptionalInt pooledNumber = randomNumberPool.poll();
+        if (pooledNumber.isPresent()) {
+            return Mono.just(toStatus(pooledNumber.getAsInt()));
+        }
+        if (!randomApiCircuitBreaker.tryAcquirePermission()) {
+            return Mono.fromSupplier(() -> fallbackStatus(new RuntimeException("Random API circuit breaker is open")));
+        }
+        return webClient.get()
+                .uri(RANDOM_NUMBER_URI)
+                .retrieve()
+                .bodyToMono(String.class)
+                .defaultIfEmpty("")
+                .map(this::toStatus)
+                .doOnNext(status -> randomApiCircuitBreaker.onSuccess())
+                .doOnError(e -> randomApiCircuitBreaker.onFailure())
+                .doOnCancel(randomApiCircuitBreaker::releasePermission)
+                .onErrorResume(WebClientException.class, e -> {
+                    logApiError(e);
+                    return Mono.fromSupplier(() -> fallbackStatus(new RuntimeException("Failed to call random API", e)));
+                });
+    }
+
+    private void countStatus(PaymentStatus status) {
+        statusCounters.get(status).increment();
+    }
+
+    private void logApiError(Exception e) {
+        if (apiErrorLogSampler.tryAcquire()) {
+            log.error("Error calling random API, {} similar errors suppressed: {}",
+                    apiErrorLogSampler.drainSuppressed(), e.getMessage(), e);
+        }
+    }
+
+    private PaymentStatus fallbackStatus(RuntimeException cause) {
+        if (!fallbackEnabled) {
+            throw cause;
+        }
+        if (fallbackLogSampler.tryAcquire()) {
+            log.warn("Using local fallback status, {} similar messages suppressed: {}",
+                    fallbackLogSampler.drainSuppressed(), cause.getMessage());
+        }
+        return localRandomStatusSource.nextStatus();
+    }
+
+    private PaymentStatus toStatus(String body) {
+        if (body != null && !body.isBlank()) {
+            try {
+                int randomNumber = Integer.parseInt(body.trim());
+                log.debug("Received random number: {}", randomNumber);
+                return toStatus(randomNumber);
+            } catch (NumberFormatException e) {
+                log.error("Failed to parse response as integer: {}", body, e);
+                throw new RuntimeException("Invalid integer response from API", e);
+            }
+        } else {
+            log.error("Empty or invalid response from API");
+            throw new RuntimeException("Empty or invalid response from API");
+        }
+    }
+
+    private PaymentStatus toStatus(int randomNumber) {
+        if (randomNumber < 0) {
+            log.error("Invalid random number: {}", randomNumber);
+            throw new IllegalArgumentException("Random number cannot be negative");
         }
+        return randomNumber % 2 == 0 ? PaymentStatus.SUCCESS : PaymentStatus.FAILED;
     }
-}
\ No newline at end of file
+}
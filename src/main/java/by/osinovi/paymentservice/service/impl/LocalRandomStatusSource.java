@@ -0,0 +1,17 @@
+package by.osinovi.paymentservice.service.impl;
+
+import by.osinovi.paymentservice.util.PaymentStatus;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+
+@Component
+public class LocalRandomStatusSource {
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public PaymentStatus nextStatus() {
+        int randomNumber = secureRandom.nextInt(1, 101);
+        return randomNumber % 2 == 0 ? PaymentStatus.SUCCESS : PaymentStatus.FAILED;
+    }
+}
@@ -0,0 +1,51 @@
+package by.osinovi.paymentservice.service.impl;
+
+import by.osinovi.paymentservice.entity.OutboxEvent;
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Component
+public class PaymentOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionOperations transactionOperations;
+
+    @Value("${payment.outbox.enabled}")
+    private boolean enabled;
+
+    @Autowired
+    public PaymentOutbox(OutboxEventRepository outboxEventRepository, MongoDatabaseFactory mongoDatabaseFactory) {
+        this(outboxEventRepository, new TransactionTemplate(new MongoTransactionManager(mongoDatabaseFactory)));
+    }
+
+    PaymentOutbox(OutboxEventRepository outboxEventRepository, TransactionOperations transactionOperations) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionOperations = transactionOperations;
+    }
+
+    public <T> T write(Supplier<T> paymentWrite, Function<T, ? extends Collection<Payment>> writtenPayments) {
+        if (!enabled) {
+            return paymentWrite.get();
+        }
+        return transactionOperations.execute(status -> {
+            T result = paymentWrite.get();
+            LocalDateTime createdAt = LocalDateTime.now();
+            outboxEventRepository.insert(writtenPayments.apply(result).stream()
+                    .map(payment -> new OutboxEvent(payment, createdAt))
+                    .toList());
+            return result;
+        });
+    }
+}
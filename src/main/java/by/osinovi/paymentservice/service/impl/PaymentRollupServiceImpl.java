@@ -0,0 +1,184 @@
+package by.osinovi.paymentservice.service.impl;
+
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.entity.PaymentRollup;
+import by.osinovi.paymentservice.repository.PaymentRepository;
+import by.osinovi.paymentservice.repository.PaymentRollupRepository;
+import by.osinovi.paymentservice.repository.RollupBucketRange;
+import by.osinovi.paymentservice.service.PaymentRollupService;
+import by.osinovi.paymentservice.util.RollupGranularity;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentRollupServiceImpl implements PaymentRollupService {
+
+    private static final RollupGranularity[] GRANULARITIES = RollupGranularity.values();
+
+    private final PaymentRollupRepository paymentRollupRepository;
+    private final PaymentRepository paymentRepository;
+    private final Map<String, PaymentRollup> pendingIncrements = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime coveredFrom;
+    private String unconfirmedFlushId;
+    private List<PaymentRollup> unconfirmedIncrements = List.of();
+
+    @Value("${payment.rollup.enabled}")
+    private boolean enabled;
+
+    @Override
+    public void record(Payment payment) {
+        merge(payment, 1, payment.getPayment_amount());
+    }
+
+    @Override
+    public void remove(Payment payment) {
+        merge(payment, -1, payment.getPayment_amount() == null ? null : payment.getPayment_amount().negate());
+    }
+
+    private void merge(Payment payment, long count, BigDecimal total) {
+        if (!enabled || payment.getTimestamp() == null || total == null) {
+            return;
+        }
+        for (RollupGranularity granularity : GRANULARITIES) {
+            PaymentRollup increment = new PaymentRollup(null, granularity, granularity.floor(payment.getTimestamp()),
+                    payment.getStatus(), count, total);
+            increment.setId(rollupId(increment));
+            pendingIncrements.merge(increment.getId(), increment, this::add);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${payment.rollup.flush-interval-ms}")
+    public synchronized void flush() {
+        if (!unconfirmedIncrements.isEmpty() && !apply(unconfirmedFlushId, unconfirmedIncrements)) {
+            return;
+        }
+        unconfirmedIncrements = List.of();
+        if (pendingIncrements.isEmpty()) {
+            return;
+        }
+        List<PaymentRollup> increments = new ArrayList<>(pendingIncrements.size());
+        for (String id : pendingIncrements.keySet()) {
+            PaymentRollup increment = pendingIncrements.remove(id);
+            if (increment != null) {
+                increments.add(increment);
+            }
+        }
+        String flushId = UUID.randomUUID().toString();
+        if (!apply(flushId, increments)) {
+            unconfirmedFlushId = flushId;
+            unconfirmedIncrements = increments;
+        }
+    }
+
+    private boolean apply(String flushId, List<PaymentRollup> increments) {
+        try {
+            paymentRollupRepository.incrementAll(flushId, increments);
+            log.debug("Flushed {} payment rollup increments as {}", increments.size(), flushId);
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Failed to flush {} payment rollup increments as {}, retrying the same flush next time: {}",
+                    increments.size(), flushId, e.getMessage());
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @Override
+    public BigDecimal sumPaymentAmount(LocalDateTime startDate, LocalDateTime endDate) {
+        if (!enabled) {
+            return paymentRepository.sumPaymentAmountByDateRange(startDate, endDate).orElse(BigDecimal.ZERO);
+        }
+        flush();
+        LocalDateTime start = startDate.truncatedTo(ChronoUnit.MILLIS);
+        LocalDateTime end = endDate.truncatedTo(ChronoUnit.MILLIS).plus(1, ChronoUnit.MILLIS);
+        if (!start.isBefore(end)) {
+            return BigDecimal.ZERO;
+        }
+
+        List<RollupBucketRange> bucketRanges = new ArrayList<>();
+        List<TimeRange> rawRanges = new ArrayList<>();
+        Optional<LocalDateTime> rollupStart = coveredFrom().map(covered -> covered.isAfter(start) ? covered : start);
+        if (rollupStart.isEmpty()) {
+            rawRanges.add(new TimeRange(start, end));
+        } else {
+            LocalDateTime splitFrom = rollupStart.get().isBefore(end) ? rollupStart.get() : end;
+            if (start.isBefore(splitFrom)) {
+                rawRanges.add(new TimeRange(start, splitFrom));
+            }
+            split(splitFrom, end, 0, bucketRanges, rawRanges);
+        }
+
+        BigDecimal total = paymentRollupRepository.sumTotalByBucketRanges(bucketRanges).orElse(BigDecimal.ZERO);
+        for (TimeRange rawRange : rawRanges) {
+            total = total.add(paymentRepository.sumPaymentAmountByDateRange(rawRange.from(),
+                    rawRange.to().minus(1, ChronoUnit.MILLIS)).orElse(BigDecimal.ZERO));
+        }
+        return total;
+    }
+
+    private void split(LocalDateTime from, LocalDateTime to, int level,
+                       List<RollupBucketRange> bucketRanges, List<TimeRange> rawRanges) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+        if (level == GRANULARITIES.length) {
+            rawRanges.add(new TimeRange(from, to));
+            return;
+        }
+        RollupGranularity granularity = GRANULARITIES[level];
+        LocalDateTime alignedFrom = granularity.ceil(from);
+        LocalDateTime alignedTo = granularity.floor(to);
+        if (alignedFrom.isBefore(alignedTo)) {
+            bucketRanges.add(new RollupBucketRange(granularity, alignedFrom, alignedTo));
+            split(from, alignedFrom, level + 1, bucketRanges, rawRanges);
+            split(alignedTo, to, level + 1, bucketRanges, rawRanges);
+        } else {
+            split(from, to, level + 1, bucketRanges, rawRanges);
+        }
+    }
+
+    private Optional<LocalDateTime> coveredFrom() {
+        if (coveredFrom == null) {
+            coveredFrom = paymentRollupRepository.findFirstByGranularityOrderByBucketStartAsc(RollupGranularity.DAY)
+                    .map(rollup -> rollup.getBucketStart().plusDays(1))
+                    .orElse(null);
+        }
+        return Optional.ofNullable(coveredFrom);
+    }
+
+    private PaymentRollup add(PaymentRollup current, PaymentRollup increment) {
+        return new PaymentRollup(current.getId(), current.getGranularity(), current.getBucketStart(),
+                current.getStatus(), current.getCount() + increment.getCount(),
+                current.getTotal().add(increment.getTotal()));
+    }
+
+    private static String rollupId(PaymentRollup rollup) {
+        return rollup.getGranularity() + ":" + rollup.getStatus() + ":" + rollup.getBucketStart();
+    }
+
+    private record TimeRange(LocalDateTime from, LocalDateTime to) {
+    }
+}
@@ -1,17 +1,35 @@
 package by.osinovi.paymentservice.service.impl;
 
+import by.osinovi.paymentservice.cache.PaymentLookupCache;
+import by.osinovi.paymentservice.cache.RecentOrderCache;
 import by.osinovi.paymentservice.dto.OrderMessage;
 import by.osinovi.paymentservice.entity.Payment;
 import by.osinovi.paymentservice.repository.PaymentRepository;
 import by.osinovi.paymentservice.service.ExternalAPIService;
+import by.osinovi.paymentservice.service.PaymentRollupService;
 import by.osinovi.paymentservice.service.PaymentService;
+import by.osinovi.paymentservice.util.TimeOrderedUuidGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -20,27 +38,197 @@ public class PaymentServiceImpl implements PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final ExternalAPIService externalAPIService;
+    private final RecentOrderCache recentOrderCache;
+    private final PaymentLookupCache paymentLookupCache;
+    private final PaymentRollupService paymentRollupService;
+    private final TimeOrderedUuidGenerator paymentIdGenerator;
+    private final PaymentOutbox paymentOutbox;
+    private final ObjectProvider<PaymentWriteBehindBuffer> paymentWriteBehindBuffer;
+
+    @Value("${random-api.max-concurrency}")
+    private int statusConcurrency;
 
     @Override
-    @Transactional
     public Payment createPayment(OrderMessage orderMessage) {
         if (orderMessage == null) {
             throw new IllegalArgumentException("OrderMessage cannot be null");
         }
-        Payment payment = new Payment();
-        payment.setId(UUID.randomUUID());
-        payment.setOrderId(orderMessage.getOrderId());
-        payment.setUserId(orderMessage.getUserId());
-        payment.setPayment_amount(orderMessage.getTotalAmount());
-        payment.setTimestamp(LocalDateTime.now());
+        Optional<Payment> existingPayment = findExistingPayment(orderMessage.getOrderId());
+        if (existingPayment.isPresent()) {
+            log.debug("Payment for order {} already exists, skipping duplicate", orderMessage.getOrderId());
+            return existingPayment.get();
+        }
+        Payment payment = buildPayment(orderMessage);
+        payment.setStatus(externalAPIService.getStatus());
 
+        return remember(saveOrGetExisting(payment));
+    }
+
+    @Override
+    public CompletableFuture<Payment> createPaymentWriteBehind(OrderMessage orderMessage) {
+        if (orderMessage == null) {
+            throw new IllegalArgumentException("OrderMessage cannot be null");
+        }
+        Optional<Payment> existingPayment = findExistingPayment(orderMessage.getOrderId());
+        if (existingPayment.isPresent()) {
+            log.debug("Payment for order {} already exists, skipping duplicate", orderMessage.getOrderId());
+            return CompletableFuture.completedFuture(existingPayment.get());
+        }
+        Payment payment = buildPayment(orderMessage);
         payment.setStatus(externalAPIService.getStatus());
 
-        return paymentRepository.save(payment);
+        return paymentWriteBehindBuffer.getObject().submit(payment).thenApply(persistedPayment -> {
+            paymentLookupCache.put(persistedPayment);
+            return remember(persistedPayment);
+        });
+    }
+
+    @Override
+    public List<Payment> createPayments(List<OrderMessage> orderMessages) {
+        if (orderMessages == null || orderMessages.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("OrderMessages cannot be null");
+        }
+        if (orderMessages.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Payment> existingPayments = findExistingPayments(orderMessages.stream()
+                .map(OrderMessage::getOrderId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList());
+
+        List<Payment> payments = new ArrayList<>(orderMessages.size());
+        List<Integer> newPaymentIndexes = new ArrayList<>();
+        Set<Long> seenOrderIds = new HashSet<>();
+        for (OrderMessage orderMessage : orderMessages) {
+            Long orderId = orderMessage.getOrderId();
+            if (orderId != null && !seenOrderIds.add(orderId)) {
+                continue;
+            }
+            Payment existingPayment = orderId == null ? null : existingPayments.get(orderId);
+            if (existingPayment != null) {
+                payments.add(existingPayment);
+            } else {
+                payments.add(buildPayment(orderMessage));
+                newPaymentIndexes.add(payments.size() - 1);
+            }
+        }
+        if (newPaymentIndexes.size() < orderMessages.size()) {
+            log.info("Skipping {} duplicate orders in batch of {}",
+                    orderMessages.size() - newPaymentIndexes.size(), orderMessages.size());
+        }
+        if (newPaymentIndexes.isEmpty()) {
+            return payments;
+        }
+
+        List<Payment> newPayments = newPaymentIndexes.stream()
+                .map(payments::get)
+                .toList();
+        Flux.fromIterable(newPayments)
+                .flatMapSequential(payment -> externalAPIService.getStatusAsync().doOnNext(payment::setStatus),
+                        statusConcurrency)
+                .blockLast();
+
+        List<Payment> savedPayments = insertOrGetExisting(newPayments);
+        for (int i = 0; i < savedPayments.size(); i++) {
+            payments.set(newPaymentIndexes.get(i), remember(savedPayments.get(i)));
+        }
+        return payments;
+    }
+
+    @Override
+    public List<Payment> getPaymentsByOrderId(Long orderId) {
+        return paymentLookupCache.getByOrderId(orderId, paymentRepository::findByOrderId);
     }
 
-    public Double getTotalAmountByDateRange(String start, String end) {
-        return paymentRepository.sumPaymentAmountByDateRange(LocalDateTime.parse(start), LocalDateTime.parse(end))
-                .orElse(0.0);
+    @Override
+    public List<Payment> getPaymentsByUserId(Long userId) {
+        return paymentLookupCache.getByUserId(userId, paymentRepository::findAllByUserId);
+    }
+
+    @Override
+    public void deletePayment(UUID id) {
+        paymentRepository.findById(id).ifPresent(payment -> {
+            if (paymentRepository.removeById(id) > 0) {
+                paymentRollupService.remove(payment);
+            }
+            paymentLookupCache.evict(payment);
+            recentOrderCache.evict(payment.getOrderId());
+        });
+    }
+
+    public BigDecimal getTotalAmountByDateRange(String start, String end) {
+        return paymentRollupService.sumPaymentAmount(LocalDateTime.parse(start), LocalDateTime.parse(end));
+    }
+
+    private Optional<Payment> findExistingPayment(Long orderId) {
+        if (orderId == null) {
+            return Optional.empty();
+        }
+        Optional<Payment> cachedPayment = recentOrderCache.get(orderId);
+        if (cachedPayment.isPresent()) {
+            return cachedPayment;
+        }
+        return paymentRepository.findFirstByOrderId(orderId).map(this::remember);
+    }
+
+    private Map<Long, Payment> findExistingPayments(List<Long> orderIds) {
+        Map<Long, Payment> existingPayments = new HashMap<>();
+        List<Long> uncachedOrderIds = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            recentOrderCache.get(orderId).ifPresentOrElse(
+                    payment -> existingPayments.put(orderId, payment),
+                    () -> uncachedOrderIds.add(orderId));
+        }
+        if (!uncachedOrderIds.isEmpty()) {
+            paymentRepository.findByOrderIdIn(uncachedOrderIds)
+                    .forEach(payment -> existingPayments.put(payment.getOrderId(), remember(payment)));
+        }
+        return existingPayments;
+    }
+
+    private Payment saveOrGetExisting(Payment payment) {
+        try {
+            Payment savedPayment = paymentOutbox.write(() -> paymentRepository.save(payment), List::of);
+            paymentRollupService.record(savedPayment);
+            paymentLookupCache.put(savedPayment);
+            return savedPayment;
+        } catch (DuplicateKeyException e) {
+            if (payment.getOrderId() == null) {
+                throw e;
+            }
+            log.info("Payment for order {} was created concurrently, using existing one", payment.getOrderId());
+            return paymentRepository.findFirstByOrderId(payment.getOrderId()).orElseThrow(() -> e);
+        }
+    }
+
+    private List<Payment> insertOrGetExisting(List<Payment> payments) {
+        try {
+            List<Payment> insertedPayments = paymentOutbox.write(() -> paymentRepository.insert(payments),
+                    Function.identity());
+            insertedPayments.forEach(paymentRollupService::record);
+            insertedPayments.forEach(paymentLookupCache::put);
+            return insertedPayments;
+        } catch (DuplicateKeyException e) {
+            log.info("Bulk insert hit concurrently created payments, retrying one by one");
+            return payments.stream()
+                    .map(this::saveOrGetExisting)
+                    .toList();
+        }
+    }
+
+    private Payment remember(Payment payment) {
+        recentOrderCache.put(payment);
+        return payment;
+    }
+
+    private Payment buildPayment(OrderMessage orderMessage) {
+        Payment payment = new Payment();
+        payment.setId(paymentIdGenerator.generate());
+        payment.setOrderId(orderMessage.getOrderId());
+        payment.setUserId(orderMessage.getUserId());
+        payment.setPayment_amount(orderMessage.getTotalAmount());
+        payment.setTimestamp(LocalDateTime.now());
+        return payment;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,173 @@
+package by.osinovi.paymentservice.service.impl;
+
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.repository.PaymentRepository;
+import by.osinovi.paymentservice.service.PaymentRollupService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnBooleanProperty("payment.write-behind.enabled")
+public class PaymentWriteBehindBuffer {
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentRollupService paymentRollupService;
+    private final Deque<PendingWrite> pendingWrites = new ArrayDeque<>();
+    private final Lock flushLock = new ReentrantLock();
+    private int inFlight;
+    private boolean backingOff;
+    private long retryAfterNanos;
+
+    @Value("${payment.write-behind.batch-size}")
+    private int batchSize;
+
+    @Value("${payment.write-behind.max-pending}")
+    private int maxPending;
+
+    @Value("${payment.write-behind.retry-backoff}")
+    private Duration retryBackoff;
+
+    public CompletableFuture<Payment> submit(Payment payment) {
+        if (pendingCount() >= maxPending) {
+            flush();
+        }
+        CompletableFuture<Payment> persisted = new CompletableFuture<>();
+        int pending;
+        synchronized (pendingWrites) {
+            if (pendingWrites.size() + inFlight >= maxPending) {
+                throw new DataAccessResourceFailureException(
+                        "Write-behind buffer is full with " + (pendingWrites.size() + inFlight) + " pending payments");
+            }
+            pendingWrites.addLast(new PendingWrite(payment, persisted));
+            pending = pendingWrites.size();
+        }
+        if (pending >= batchSize) {
+            flush();
+        }
+        return persisted;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.write-behind.flush-interval-ms}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            if (backingOff && System.nanoTime() - retryAfterNanos < 0) {
+                return;
+            }
+            List<PendingWrite> batch;
+            synchronized (pendingWrites) {
+                batch = new ArrayList<>(pendingWrites);
+                pendingWrites.clear();
+                inFlight = batch.size();
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<PendingWrite> retries = batch;
+            try {
+                retries = persist(batch);
+            } catch (DataAccessException e) {
+                log.warn("Failed to flush {} buffered payments, retrying in {}: {}",
+                        batch.size(), retryBackoff, e.getMessage());
+            } finally {
+                requeue(retries);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushLock.lock();
+        try {
+            backingOff = false;
+        } finally {
+            flushLock.unlock();
+        }
+        flush();
+    }
+
+    private List<PendingWrite> persist(List<PendingWrite> batch) {
+        List<Payment> duplicates = paymentRepository.insertAllUnordered(batch.stream().map(PendingWrite::payment).toList());
+        Set<UUID> duplicateIds = duplicates.stream()
+                .map(Payment::getId)
+                .collect(Collectors.toSet());
+        List<PendingWrite> unresolved = new ArrayList<>();
+        for (PendingWrite write : batch) {
+            if (!duplicateIds.contains(write.payment().getId())) {
+                paymentRollupService.record(write.payment());
+                write.persisted().complete(write.payment());
+            } else if (!completeWithExisting(write)) {
+                unresolved.add(write);
+            }
+        }
+        log.debug("Flushed {} buffered payments, {} were duplicates", batch.size(), duplicates.size());
+        return unresolved;
+    }
+
+    private void requeue(List<PendingWrite> retries) {
+        synchronized (pendingWrites) {
+            for (int i = retries.size() - 1; i >= 0; i--) {
+                pendingWrites.addFirst(retries.get(i));
+            }
+            inFlight = 0;
+        }
+        backingOff = !retries.isEmpty();
+        retryAfterNanos = System.nanoTime() + retryBackoff.toNanos();
+    }
+
+    private boolean completeWithExisting(PendingWrite write) {
+        Long orderId = write.payment().getOrderId();
+        if (orderId == null) {
+            write.persisted().completeExceptionally(
+                    new DuplicateKeyException("Duplicate payment " + write.payment().getId()));
+            return true;
+        }
+        Optional<Payment> existing;
+        try {
+            existing = paymentRepository.findFirstByOrderId(orderId);
+        } catch (DataAccessException e) {
+            log.warn("Failed to look up existing payment for order {}, retrying its insert: {}", orderId, e.getMessage());
+            return false;
+        }
+        if (existing.isEmpty()) {
+            return false;
+        }
+        write.persisted().complete(existing.get());
+        log.info("Payment for order {} was created concurrently, using existing one", orderId);
+        return true;
+    }
+
+    private int pendingCount() {
+        synchronized (pendingWrites) {
+            return pendingWrites.size();
+        }
+    }
+
+    private record PendingWrite(Payment payment, CompletableFuture<Payment> persisted) {
+    }
+}
@@ -0,0 +1,165 @@
+package by.osinovi.paymentservice.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Slf4j
+public class RandomNumberPool {
+
+    private static final String RANDOM_NUMBERS_URI = "/integers/?num={num}&min=1&max=100&col=1&base=10&format=plain&rnd=new";
+
+    private final RestClient restClient;
+    private final TaskExecutor refillExecutor = new SimpleAsyncTaskExecutor("random-number-pool-");
+    private final Queue<Integer> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final AtomicLong nextRefillAttempt = new AtomicLong();
+    private final Counter missCounter;
+    private final Counter refillCounter;
+
+    @Value("${random-api.pool.enabled}")
+    private boolean enabled;
+
+    @Value("${random-api.pool.block-size}")
+    private int blockSize;
+
+    @Value("${random-api.pool.low-watermark}")
+    private int lowWatermark;
+
+    @Value("${random-api.pool.high-watermark}")
+    private int highWatermark;
+
+    @Value("${random-api.pool.retry-backoff-ms}")
+    private long retryBackoffMs;
+
+    public RandomNumberPool(RestClient restClient, MeterRegistry meterRegistry) {
+        this.restClient = restClient;
+        this.missCounter = Counter.builder("random.pool.misses")
+                .description("Status decisions that found the random number pool empty")
+                .register(meterRegistry);
+        this.refillCounter = Counter.builder("random.pool.refills")
+                .description("Blocks of random numbers fetched from the random API")
+                .register(meterRegistry);
+        Gauge.builder("random.pool.size", size, AtomicInteger::get)
+                .description("Random numbers currently buffered")
+                .register(meterRegistry);
+    }
+
+    public OptionalInt poll() {
+        if (!enabled) {
+            return OptionalInt.empty();
+        }
+        Integer randomNumber = buffer.poll();
+        if (randomNumber == null) {
+            missCounter.increment();
+            triggerRefill();
+            return OptionalInt.empty();
+        }
+        if (size.decrementAndGet() <= lowWatermark) {
+            triggerRefill();
+        }
+        return OptionalInt.of(randomNumber);
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        triggerRefill();
+    }
+
+    @Scheduled(fixedDelayString = "${random-api.pool.check-interval-ms}")
+    public void refillIfBelowLowWatermark() {
+        if (size.get() <= lowWatermark) {
+            triggerRefill();
+        }
+    }
+
+    void triggerRefill() {
+        if (!enabled || System.currentTimeMillis() < nextRefillAttempt.get()
+                || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+        refillExecutor.execute(() -> {
+            try {
+                refill();
+            } finally {
+                refilling.set(false);
+            }
+        });
+    }
+
+    void refill() {
+        try {
+            while (size.get() < highWatermark) {
+                List<Integer> randomNumbers = fetch(Math.min(blockSize, highWatermark - size.get()));
+                if (randomNumbers.isEmpty()) {
+                    backOff("empty response");
+                    break;
+                }
+                buffer.addAll(randomNumbers);
+                size.addAndGet(randomNumbers.size());
+                refillCounter.increment();
+            }
+            log.debug("Random number pool refilled to {}", size.get());
+        } catch (RestClientException e) {
+            backOff(e.getMessage());
+        }
+    }
+
+    private void backOff(String reason) {
+        nextRefillAttempt.set(System.currentTimeMillis() + retryBackoffMs);
+        log.warn("Failed to refill random number pool, retrying in {} ms: {}", retryBackoffMs, reason);
+    }
+
+    private List<Integer> fetch(int count) {
+        String body = restClient.get()
+                .uri(RANDOM_NUMBERS_URI, count)
+                .retrieve()
+                .body(String.class);
+
+        List<Integer> randomNumbers = new ArrayList<>(count);
+        if (body == null) {
+            return randomNumbers;
+        }
+        for (String line : body.split("\\s+")) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                int randomNumber = Integer.parseInt(line);
+                if (randomNumber >= 0) {
+                    randomNumbers.add(randomNumber);
+                } else {
+                    log.warn("Skipping invalid random number: {}", randomNumber);
+                }
+            } catch (NumberFormatException e) {
+                log.warn("Skipping non-integer value from random API: {}", line);
+            }
+        }
+        return randomNumbers;
+    }
+}
@@ -0,0 +1,162 @@
+package by.osinovi.paymentservice.service.impl;
+
+import by.osinovi.paymentservice.cache.PaymentLookupCache;
+import by.osinovi.paymentservice.cache.RecentOrderCache;
+import by.osinovi.paymentservice.dto.OrderMessage;
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.repository.ReactivePaymentRepository;
+import by.osinovi.paymentservice.service.ExternalAPIService;
+import by.osinovi.paymentservice.service.PaymentRollupService;
+import by.osinovi.paymentservice.service.ReactivePaymentService;
+import by.osinovi.paymentservice.util.TimeOrderedUuidGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "payment.pipeline", havingValue = "reactive")
+public class ReactivePaymentServiceImpl implements ReactivePaymentService {
+
+    private final ReactivePaymentRepository reactivePaymentRepository;
+    private final ExternalAPIService externalAPIService;
+    private final RecentOrderCache recentOrderCache;
+    private final PaymentLookupCache paymentLookupCache;
+    private final PaymentRollupService paymentRollupService;
+    private final TimeOrderedUuidGenerator paymentIdGenerator;
+
+    @Value("${random-api.max-concurrency}")
+    private int statusConcurrency;
+
+    @Override
+    public Flux<Payment> createPayments(List<OrderMessage> orderMessages) {
+        if (orderMessages == null || orderMessages.stream().anyMatch(Objects::isNull)) {
+            return Flux.error(new IllegalArgumentException("OrderMessages cannot be null"));
+        }
+        if (orderMessages.isEmpty()) {
+            return Flux.empty();
+        }
+        return findExistingPayments(orderMessages.stream()
+                .map(OrderMessage::getOrderId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList())
+                .flatMapMany(existingPayments -> createMissingPayments(orderMessages, existingPayments));
+    }
+
+    private Flux<Payment> createMissingPayments(List<OrderMessage> orderMessages, Map<Long, Payment> existingPayments) {
+        List<Payment> payments = new ArrayList<>(orderMessages.size());
+        List<Integer> newPaymentIndexes = new ArrayList<>();
+        Set<Long> seenOrderIds = new HashSet<>();
+        for (OrderMessage orderMessage : orderMessages) {
+            Long orderId = orderMessage.getOrderId();
+            if (orderId != null && !seenOrderIds.add(orderId)) {
+                continue;
+            }
+            Payment existingPayment = orderId == null ? null : existingPayments.get(orderId);
+            if (existingPayment != null) {
+                payments.add(existingPayment);
+            } else {
+                payments.add(buildPayment(orderMessage));
+                newPaymentIndexes.add(payments.size() - 1);
+            }
+        }
+        if (newPaymentIndexes.size() < orderMessages.size()) {
+            log.info("Skipping {} duplicate orders in batch of {}",
+                    orderMessages.size() - newPaymentIndexes.size(), orderMessages.size());
+        }
+        if (newPaymentIndexes.isEmpty()) {
+            return Flux.fromIterable(payments);
+        }
+
+        List<Payment> newPayments = newPaymentIndexes.stream()
+                .map(payments::get)
+                .toList();
+        return Flux.fromIterable(newPayments)
+                .flatMapSequential(payment -> externalAPIService.getStatusAsync().doOnNext(payment::setStatus),
+                        statusConcurrency)
+                .then(insertOrGetExisting(newPayments))
+                .flatMapMany(savedPayments -> {
+                    for (int i = 0; i < savedPayments.size(); i++) {
+                        payments.set(newPaymentIndexes.get(i), remember(savedPayments.get(i)));
+                    }
+                    return Flux.fromIterable(payments);
+                });
+    }
+
+    private Mono<Map<Long, Payment>> findExistingPayments(List<Long> orderIds) {
+        Map<Long, Payment> existingPayments = new HashMap<>();
+        List<Long> uncachedOrderIds = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            recentOrderCache.get(orderId).ifPresentOrElse(
+                    payment -> existingPayments.put(orderId, payment),
+                    () -> uncachedOrderIds.add(orderId));
+        }
+        if (uncachedOrderIds.isEmpty()) {
+            return Mono.just(existingPayments);
+        }
+        return reactivePaymentRepository.findByOrderIdIn(uncachedOrderIds)
+                .doOnNext(payment -> existingPayments.put(payment.getOrderId(), remember(payment)))
+                .then(Mono.fromSupplier(() -> existingPayments));
+    }
+
+    private Mono<List<Payment>> insertOrGetExisting(List<Payment> payments) {
+        return reactivePaymentRepository.insert(payments)
+                .collectList()
+                .doOnNext(insertedPayments -> insertedPayments.forEach(this::onPersisted))
+                .onErrorResume(DuplicateKeyException.class, e -> {
+                    log.info("Bulk insert hit concurrently created payments, retrying one by one");
+                    return Flux.fromIterable(payments)
+                            .concatMap(this::saveOrGetExisting)
+                            .collectList();
+                });
+    }
+
+    private Mono<Payment> saveOrGetExisting(Payment payment) {
+        return reactivePaymentRepository.save(payment)
+                .doOnNext(this::onPersisted)
+                .onErrorResume(DuplicateKeyException.class, e -> {
+                    if (payment.getOrderId() == null) {
+                        return Mono.error(e);
+                    }
+                    log.info("Payment for order {} was created concurrently, using existing one", payment.getOrderId());
+                    return reactivePaymentRepository.findFirstByOrderId(payment.getOrderId())
+                            .switchIfEmpty(Mono.error(e));
+                });
+    }
+
+    private void onPersisted(Payment payment) {
+        paymentRollupService.record(payment);
+        paymentLookupCache.put(payment);
+    }
+
+    private Payment remember(Payment payment) {
+        recentOrderCache.put(payment);
+        return payment;
+    }
+
+    private Payment buildPayment(OrderMessage orderMessage) {
+        Payment payment = new Payment();
+        payment.setId(paymentIdGenerator.generate());
+        payment.setOrderId(orderMessage.getOrderId());
+        payment.setUserId(orderMessage.getUserId());
+        payment.setPayment_amount(orderMessage.getTotalAmount());
+        payment.setTimestamp(LocalDateTime.now());
+        return payment;
+    }
+}
@@ -0,0 +1,99 @@
+package by.osinovi.paymentservice.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private final int halfOpenPermits;
+    private final Clock clock;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(State.CLOSED, 0, 0));
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, int halfOpenPermits, Clock clock) {
+        if (failureThreshold < 1 || halfOpenPermits < 1) {
+            throw new IllegalArgumentException("Failure threshold and half-open permits must be positive");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDuration.toMillis();
+        this.halfOpenPermits = halfOpenPermits;
+        this.clock = clock;
+    }
+
+    public boolean tryAcquirePermission() {
+        while (true) {
+            Snapshot current = snapshot.get();
+            if (current.state() == State.CLOSED) {
+                return true;
+            }
+            if (current.state() == State.OPEN) {
+                if (clock.millis() - current.openedAt() < openDurationMillis) {
+                    return false;
+                }
+                if (snapshot.compareAndSet(current, new Snapshot(State.HALF_OPEN, 1, current.openedAt()))) {
+                    log.info("Circuit breaker '{}' is half-open, probing", name);
+                    return true;
+                }
+            } else if (current.halfOpenCalls() >= halfOpenPermits) {
+                return false;
+            } else if (snapshot.compareAndSet(current, current.withHalfOpenCalls(current.halfOpenCalls() + 1))) {
+                return true;
+            }
+        }
+    }
+
+    public void releasePermission() {
+        snapshot.updateAndGet(current -> current.state() == State.HALF_OPEN && current.halfOpenCalls() > 0
+                ? current.withHalfOpenCalls(current.halfOpenCalls() - 1)
+                : current);
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        Snapshot current = snapshot.get();
+        if (current.state() == State.HALF_OPEN
+                && snapshot.compareAndSet(current, new Snapshot(State.CLOSED, 0, current.openedAt()))) {
+            log.info("Circuit breaker '{}' closed", name);
+        }
+    }
+
+    public void onFailure() {
+        State current = snapshot.get().state();
+        if (current == State.HALF_OPEN) {
+            open();
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold && current == State.CLOSED) {
+            open();
+        }
+    }
+
+    public State getState() {
+        return snapshot.get().state();
+    }
+
+    private void open() {
+        Snapshot previous = snapshot.getAndSet(new Snapshot(State.OPEN, 0, clock.millis()));
+        if (previous.state() != State.OPEN) {
+            log.warn("Circuit breaker '{}' opened for {} ms", name, openDurationMillis);
+        }
+    }
+
+    private record Snapshot(State state, int halfOpenCalls, long openedAt) {
+        Snapshot withHalfOpenCalls(int calls) {
+            return new Snapshot(state, calls, openedAt);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package by.osinovi.paymentservice.util;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LogSampler {
+
+    private final long intervalMillis;
+    private final Clock clock;
+
+    private final AtomicLong nextPermitAt = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogSampler(Duration interval, Clock clock) {
+        if (interval.isNegative()) {
+            throw new IllegalArgumentException("Sampling interval must not be negative");
+        }
+        this.intervalMillis = interval.toMillis();
+        this.clock = clock;
+    }
+
+    public boolean tryAcquire() {
+        long now = clock.millis();
+        long next = nextPermitAt.get();
+        if (now >= next && nextPermitAt.compareAndSet(next, now + intervalMillis)) {
+            return true;
+        }
+        suppressed.incrementAndGet();
+        return false;
+    }
+
+    public long drainSuppressed() {
+        return suppressed.getAndSet(0);
+    }
+}
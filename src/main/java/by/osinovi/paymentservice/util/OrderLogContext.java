@@ -0,0 +1,27 @@
+package by.osinovi.paymentservice.util;
+
+import by.osinovi.paymentservice.dto.OrderMessage;
+import org.slf4j.MDC;
+
+public final class OrderLogContext implements AutoCloseable {
+
+    public static final String ORDER_ID = "orderId";
+    public static final String USER_ID = "userId";
+
+    private OrderLogContext() {
+    }
+
+    public static OrderLogContext of(OrderMessage orderMessage) {
+        if (orderMessage != null) {
+            MDC.put(ORDER_ID, String.valueOf(orderMessage.getOrderId()));
+            MDC.put(USER_ID, String.valueOf(orderMessage.getUserId()));
+        }
+        return new OrderLogContext();
+    }
+
+    @Override
+    public void close() {
+        MDC.remove(ORDER_ID);
+        MDC.remove(USER_ID);
+    }
+}
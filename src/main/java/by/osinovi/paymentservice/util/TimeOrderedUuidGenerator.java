@@ -0,0 +1,43 @@
+package by.osinovi.paymentservice.util;
+
+import org.bson.UuidRepresentation;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TimeOrderedUuidGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC_4122 = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private final Clock clock;
+    private final boolean javaLegacyEncoding;
+    private final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    public TimeOrderedUuidGenerator(Clock clock) {
+        this(clock, UuidRepresentation.STANDARD);
+    }
+
+    public TimeOrderedUuidGenerator(Clock clock, UuidRepresentation uuidRepresentation) {
+        this.clock = clock;
+        this.javaLegacyEncoding = uuidRepresentation == UuidRepresentation.JAVA_LEGACY;
+    }
+
+    public UUID generate() {
+        long timestampAndCounter = lastTimestampAndCounter.updateAndGet(
+                last -> Math.max(clock.millis() << COUNTER_BITS, last + 1));
+        long timestamp = timestampAndCounter >>> COUNTER_BITS;
+        long counter = timestampAndCounter & ((1L << COUNTER_BITS) - 1);
+
+        long mostSignificantBits = (timestamp << 16) | VERSION_7 | counter;
+        long leastSignificantBits = VARIANT_RFC_4122 | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+        if (javaLegacyEncoding) {
+            return new UUID(Long.reverseBytes(mostSignificantBits), Long.reverseBytes(leastSignificantBits));
+        }
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+}
@@ -0,0 +1,81 @@
+package by.osinovi.paymentservice.cache;
+
+import by.osinovi.paymentservice.entity.Payment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PaymentLookupCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PaymentLookupCache paymentLookupCache = new PaymentLookupCache(meterRegistry, 100, Duration.ofMinutes(5));
+
+    @Test
+    void getByOrderId_ShouldLoadOnce_AndRecordHitsAndMisses() {
+        Payment payment = payment(1L, 7L);
+        AtomicInteger loads = new AtomicInteger();
+
+        paymentLookupCache.getByOrderId(1L, orderId -> {
+            loads.incrementAndGet();
+            return List.of(payment);
+        });
+        List<Payment> cached = paymentLookupCache.getByOrderId(1L, orderId -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        assertEquals(List.of(payment), cached);
+        assertEquals(1, loads.get());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "payments.by-order-id").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "payments.by-order-id").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void getByOrderId_ShouldNotCacheMissingOrders() {
+        Payment payment = payment(1L, 7L);
+
+        paymentLookupCache.getByOrderId(1L, orderId -> List.of());
+
+        assertEquals(List.of(payment), paymentLookupCache.getByOrderId(1L, orderId -> List.of(payment)));
+    }
+
+    @Test
+    void put_ShouldPopulateOrderLookup_AndInvalidateUserLookup() {
+        Payment existing = payment(1L, 7L);
+        Payment created = payment(2L, 7L);
+        paymentLookupCache.getByUserId(7L, userId -> List.of(existing));
+
+        paymentLookupCache.put(created);
+
+        assertEquals(List.of(created), paymentLookupCache.getByOrderId(2L, orderId -> List.of()));
+        assertEquals(List.of(existing, created), paymentLookupCache.getByUserId(7L, userId -> List.of(existing, created)));
+    }
+
+    @Test
+    void evict_ShouldForceReload_ForOrderAndUserLookups() {
+        Payment payment = payment(1L, 7L);
+        paymentLookupCache.put(payment);
+        paymentLookupCache.getByUserId(7L, userId -> List.of(payment));
+
+        paymentLookupCache.evict(payment);
+
+        assertEquals(List.of(), paymentLookupCache.getByOrderId(1L, orderId -> List.of()));
+        assertEquals(List.of(), paymentLookupCache.getByUserId(7L, userId -> List.of()));
+    }
+
+    private static Payment payment(Long orderId, Long userId) {
+        Payment payment = new Payment();
+        payment.setId(UUID.randomUUID());
+        payment.setOrderId(orderId);
+        payment.setUserId(userId);
+        return payment;
+    }
+}
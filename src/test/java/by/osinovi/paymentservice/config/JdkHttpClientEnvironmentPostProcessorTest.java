@@ -0,0 +1,49 @@
+package by.osinovi.paymentservice.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.mock.env.MockEnvironment;
+
+import static by.osinovi.paymentservice.config.JdkHttpClientEnvironmentPostProcessor.KEEP_ALIVE_PROPERTY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JdkHttpClientEnvironmentPostProcessorTest {
+
+    private final JdkHttpClientEnvironmentPostProcessor postProcessor = new JdkHttpClientEnvironmentPostProcessor();
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(KEEP_ALIVE_PROPERTY);
+    }
+
+    @Test
+    void postProcessEnvironment_ShouldSetKeepAliveFromRandomApiProperty_WhenJdkClientIsSelected() {
+        postProcessor.postProcessEnvironment(environment("jdk"), new SpringApplication());
+
+        assertEquals("300", System.getProperty(KEEP_ALIVE_PROPERTY));
+    }
+
+    @Test
+    void postProcessEnvironment_ShouldLeaveKeepAliveUnset_WhenPooledClientIsSelected() {
+        postProcessor.postProcessEnvironment(environment("http-components"), new SpringApplication());
+
+        assertNull(System.getProperty(KEEP_ALIVE_PROPERTY));
+    }
+
+    @Test
+    void postProcessEnvironment_ShouldKeepExplicitKeepAlive_WhenAlreadySet() {
+        System.setProperty(KEEP_ALIVE_PROPERTY, "60");
+
+        postProcessor.postProcessEnvironment(environment("jdk"), new SpringApplication());
+
+        assertEquals("60", System.getProperty(KEEP_ALIVE_PROPERTY));
+    }
+
+    private MockEnvironment environment(String client) {
+        return new MockEnvironment()
+                .withProperty("random-api.http.client", client)
+                .withProperty("random-api.http.keep-alive", "5m");
+    }
+}
@@ -0,0 +1,66 @@
+package by.osinovi.paymentservice.config;
+
+import by.osinovi.paymentservice.entity.OutboxEvent;
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.entity.PaymentRollup;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.WriteConcern;
+import io.micrometer.observation.ObservationRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.mongodb.core.MongoAction;
+import org.springframework.data.mongodb.core.MongoActionOperation;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MongoConfigTest {
+
+    private MongoConfig mongoConfig;
+    private WriteConcernResolver writeConcernResolver;
+
+    @BeforeEach
+    void setUp() {
+        mongoConfig = new MongoConfig();
+        ReflectionTestUtils.setField(mongoConfig, "paymentWriteConcern", "MAJORITY");
+        ReflectionTestUtils.setField(mongoConfig, "rollupWriteConcern", "W1");
+        writeConcernResolver = mongoConfig.writeConcernResolver();
+    }
+
+    @Test
+    void writeConcernResolver_ShouldUsePaymentWriteConcern_ForPaymentsAndOutboxEvents() {
+        assertEquals(WriteConcern.MAJORITY, writeConcernResolver.resolve(action(Payment.class)));
+        assertEquals(WriteConcern.MAJORITY, writeConcernResolver.resolve(action(OutboxEvent.class)));
+    }
+
+    @Test
+    void writeConcernResolver_ShouldUseRollupWriteConcern_ForRollups_AndDefaultOtherwise() {
+        assertEquals(WriteConcern.W1, writeConcernResolver.resolve(action(PaymentRollup.class)));
+        assertEquals(WriteConcern.ACKNOWLEDGED, writeConcernResolver.resolve(action(Document.class)));
+    }
+
+    @Test
+    void observationCustomizer_ShouldRegisterObservationCommandListenerAndContextProvider() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("observationRegistry", ObservationRegistry.create());
+        MongoClientSettings.Builder builder = MongoClientSettings.builder();
+
+        mongoConfig.observationCustomizer(beanFactory.getBeanProvider(ObservationRegistry.class)).customize(builder);
+
+        MongoClientSettings settings = builder.build();
+        assertNotNull(settings.getContextProvider());
+        assertTrue(settings.getCommandListeners().stream()
+                .anyMatch(MongoObservationCommandListener.class::isInstance));
+    }
+
+    private static MongoAction action(Class<?> entityType) {
+        return new MongoAction(WriteConcern.ACKNOWLEDGED, MongoActionOperation.INSERT, "collection", entityType,
+                new Document(), null);
+    }
+}
@@ -0,0 +1,64 @@
+package by.osinovi.paymentservice.config;
+
+import by.osinovi.paymentservice.util.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class RestClientConfigTest {
+
+    private RestClientConfig restClientConfig;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        restClientConfig = new RestClientConfig();
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(restClientConfig, "uri", "http://localhost:8080");
+        ReflectionTestUtils.setField(restClientConfig, "connectTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(restClientConfig, "readTimeout", Duration.ofSeconds(3));
+        ReflectionTestUtils.setField(restClientConfig, "maxConnections", 200);
+        ReflectionTestUtils.setField(restClientConfig, "maxConnectionsPerRoute", 64);
+        ReflectionTestUtils.setField(restClientConfig, "idleEviction", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(restClientConfig, "keepAlive", Duration.ofMinutes(5));
+    }
+
+    @Test
+    void pooledRandomApiRequestFactory_ShouldBindConnectionPoolMetrics_WithConfiguredLimits() {
+        ClientHttpRequestFactory requestFactory = restClientConfig.pooledRandomApiRequestFactory(meterRegistry);
+
+        assertInstanceOf(HttpComponentsClientHttpRequestFactory.class, requestFactory);
+        assertEquals(200, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "random-api").gauge().value());
+    }
+
+    @Test
+    void http2RandomApiRequestFactory_ShouldUseHttp2JdkClient_WithConfiguredConnectTimeout() {
+        ClientHttpRequestFactory requestFactory = restClientConfig.http2RandomApiRequestFactory();
+
+        JdkClientHttpRequestFactory jdkRequestFactory = assertInstanceOf(JdkClientHttpRequestFactory.class, requestFactory);
+        HttpClient httpClient = (HttpClient) ReflectionTestUtils.getField(jdkRequestFactory, "httpClient");
+        assertEquals(HttpClient.Version.HTTP_2, httpClient.version());
+        assertEquals(Optional.of(Duration.ofSeconds(2)), httpClient.connectTimeout());
+    }
+
+    @Test
+    void randomApiCircuitBreaker_ShouldExposeStateGauge() {
+        CircuitBreaker circuitBreaker = restClientConfig.randomApiCircuitBreaker(meterRegistry, 1, Duration.ofMinutes(1), 1);
+
+        assertEquals(0, meterRegistry.get("random.circuit.state").gauge().value());
+        circuitBreaker.onFailure();
+        assertEquals(1, meterRegistry.get("random.circuit.state").gauge().value());
+    }
+}
@@ -1,5 +1,6 @@
 package by.osinovi.paymentservice.integration;
 
+import by.osinovi.paymentservice.cache.RecentOrderCache;
 import by.osinovi.paymentservice.dto.OrderMessage;
 import by.osinovi.paymentservice.entity.Payment;
 import by.osinovi.paymentservice.integration.config.BaseIntegrationTest;
@@ -10,10 +11,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -27,6 +31,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
@@ -45,7 +50,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@SpringBootTest
+@SpringBootTest(properties = "management.otlp.tracing.export.enabled=false")
+@AutoConfigureObservability(metrics = false)
 @Testcontainers
 @DirtiesContext
 public class KafkaIntegrationTest extends BaseIntegrationTest {
@@ -60,6 +66,9 @@ public class KafkaIntegrationTest extends BaseIntegrationTest {
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private RecentOrderCache recentOrderCache;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -94,6 +103,7 @@ public class KafkaIntegrationTest extends BaseIntegrationTest {
     @BeforeEach
     void setUp() {
         paymentRepository.deleteAll();
+        recentOrderCache.clear();
         paymentEvents.clear();
         WireMock.reset();
 
@@ -134,6 +144,28 @@ public class KafkaIntegrationTest extends BaseIntegrationTest {
         assertEquals(createdPayment.getPayment_amount(), receivedEvent.value().getPayment_amount());
     }
 
+    @Test
+    void fullKafkaFlow_ShouldContinueUpstreamTraceInPaymentEvent() throws Exception {
+        String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+        OrderMessage orderMessage = createOrderMessage(321L, 654L, new BigDecimal("75.25"));
+        ProducerRecord<String, OrderMessage> orderRecord =
+                new ProducerRecord<>("orders-topic", String.valueOf(orderMessage.getOrderId()), orderMessage);
+        orderRecord.headers().add("traceparent",
+                ("00-" + traceId + "-00f067aa0ba902b7-01").getBytes(StandardCharsets.UTF_8));
+        paymentEvents.clear();
+
+        kafkaTemplate.executeInTransaction(operations -> {
+            operations.send(orderRecord);
+            return null;
+        });
+
+        ConsumerRecord<String, Payment> receivedEvent = paymentEvents.poll(10, TimeUnit.SECONDS);
+        assertNotNull(receivedEvent, "No payment event was received within 10 seconds");
+        Header traceparent = receivedEvent.headers().lastHeader("traceparent");
+        assertNotNull(traceparent, "Payment event was sent without trace context");
+        assertTrue(new String(traceparent.value(), StandardCharsets.UTF_8).contains(traceId));
+    }
+
     @Test
     void handleCreateOrder_ShouldProcessOrderMessageAndCreatePayment() throws Exception {
         OrderMessage orderMessage = createOrderMessage(123L, 456L, new BigDecimal("100.50"));
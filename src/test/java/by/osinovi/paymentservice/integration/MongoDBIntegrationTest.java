@@ -1,13 +1,30 @@
 package by.osinovi.paymentservice.integration;
 
+import by.osinovi.paymentservice.config.MongoConfig;
 import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.entity.PaymentRollup;
 import by.osinovi.paymentservice.integration.config.BaseIntegrationTest;
+import by.osinovi.paymentservice.repository.PaymentQueryPlanVerifier;
 import by.osinovi.paymentservice.repository.PaymentRepository;
+import by.osinovi.paymentservice.repository.PaymentRollupRepository;
+import by.osinovi.paymentservice.repository.PaymentSummary;
+import by.osinovi.paymentservice.repository.RollupBucketRange;
 import by.osinovi.paymentservice.util.PaymentStatus;
+import by.osinovi.paymentservice.util.RollupGranularity;
+import org.bson.Document;
+import org.bson.types.Decimal128;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.math.BigDecimal;
@@ -15,6 +32,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -22,17 +40,25 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataMongoTest
+@Import(MongoConfig.class)
 @Testcontainers
 class MongoDBIntegrationTest extends BaseIntegrationTest {
 
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private PaymentRollupRepository paymentRollupRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     private Payment testPayment;
 
     @BeforeEach
     void setUp() {
         paymentRepository.deleteAll();
+        paymentRollupRepository.deleteAll();
         
         testPayment = new Payment();
         testPayment.setId(UUID.randomUUID());
@@ -71,6 +97,7 @@ class MongoDBIntegrationTest extends BaseIntegrationTest {
 
         assertEquals(2, userPayments.size());
         assertTrue(userPayments.stream().allMatch(p -> p.getUserId().equals(456L)));
+        assertEquals(2, paymentRepository.findAllByUserId(456L).size());
     }
 
     @Test
@@ -116,10 +143,10 @@ class MongoDBIntegrationTest extends BaseIntegrationTest {
         LocalDateTime startDate = LocalDateTime.of(2024, 1, 1, 0, 0, 0);
         LocalDateTime endDate = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
 
-        Optional<Double> sum = paymentRepository.sumPaymentAmountByDateRange(startDate, endDate);
+        Optional<BigDecimal> sum = paymentRepository.sumPaymentAmountByDateRange(startDate, endDate);
 
         assertTrue(sum.isPresent());
-        assertEquals(300.50, sum.get(), 0.01);
+        assertEquals(0, new BigDecimal("300.50").compareTo(sum.get()));
     }
 
     @Test
@@ -132,11 +159,61 @@ class MongoDBIntegrationTest extends BaseIntegrationTest {
         LocalDateTime startDate = LocalDateTime.of(2024, 2, 1, 0, 0, 0);
         LocalDateTime endDate = LocalDateTime.of(2024, 2, 28, 23, 59, 59);
 
-        Optional<Double> sum = paymentRepository.sumPaymentAmountByDateRange(startDate, endDate);
+        Optional<BigDecimal> sum = paymentRepository.sumPaymentAmountByDateRange(startDate, endDate);
 
         assertFalse(sum.isPresent());
     }
 
+    @Test
+    void savePayment_ShouldStorePaymentAmountAsDecimal128() {
+        paymentRepository.save(testPayment);
+
+        Document stored = mongoTemplate.getCollection("payments").find(new Document("order_id", 123L)).first();
+
+        assertNotNull(stored);
+        assertEquals(new Decimal128(new BigDecimal("100.50")), stored.get("payment_amount"));
+    }
+
+    @Test
+    void paymentRollups_ShouldAccumulateIncrementsAndSumBucketRanges() {
+        LocalDateTime firstHour = LocalDateTime.of(2024, 1, 15, 10, 0);
+        LocalDateTime secondHour = firstHour.plusHours(1);
+        paymentRollupRepository.incrementAll("flush-1", List.of(
+                rollupIncrement(firstHour, PaymentStatus.SUCCESS, new BigDecimal("100.10")),
+                rollupIncrement(secondHour, PaymentStatus.FAILED, new BigDecimal("50.05"))));
+        paymentRollupRepository.incrementAll("flush-2", List.of(
+                rollupIncrement(firstHour, PaymentStatus.SUCCESS, new BigDecimal("0.20"))));
+
+        Optional<BigDecimal> firstHourTotal = paymentRollupRepository.sumTotalByBucketRanges(List.of(
+                new RollupBucketRange(RollupGranularity.HOUR, firstHour, secondHour)));
+        Optional<BigDecimal> bothHoursTotal = paymentRollupRepository.sumTotalByBucketRanges(List.of(
+                new RollupBucketRange(RollupGranularity.HOUR, firstHour, secondHour.plusHours(1))));
+
+        assertEquals(2, paymentRollupRepository.count());
+        assertEquals(2, paymentRollupRepository.findAll().stream()
+                .filter(rollup -> rollup.getStatus() == PaymentStatus.SUCCESS)
+                .findFirst().orElseThrow().getCount());
+        assertEquals(0, new BigDecimal("100.30").compareTo(firstHourTotal.orElseThrow()));
+        assertEquals(0, new BigDecimal("150.35").compareTo(bothHoursTotal.orElseThrow()));
+    }
+
+    @Test
+    void paymentRollups_ShouldApplyFlushOnce_WhenSameFlushIsRetried() {
+        LocalDateTime firstHour = LocalDateTime.of(2024, 1, 15, 10, 0);
+        LocalDateTime secondHour = firstHour.plusHours(1);
+        paymentRollupRepository.incrementAll("flush-1", List.of(
+                rollupIncrement(firstHour, PaymentStatus.SUCCESS, new BigDecimal("100.10"))));
+        paymentRollupRepository.incrementAll("flush-1", List.of(
+                rollupIncrement(firstHour, PaymentStatus.SUCCESS, new BigDecimal("100.10")),
+                rollupIncrement(secondHour, PaymentStatus.FAILED, new BigDecimal("50.05"))));
+
+        Optional<BigDecimal> bothHoursTotal = paymentRollupRepository.sumTotalByBucketRanges(List.of(
+                new RollupBucketRange(RollupGranularity.HOUR, firstHour, secondHour.plusHours(1))));
+
+        assertEquals(2, paymentRollupRepository.count());
+        assertEquals(0, new BigDecimal("150.15").compareTo(bothHoursTotal.orElseThrow()));
+    }
+
     @Test
     void existsById_ShouldReturnTrue_WhenPaymentExists() {
         Payment savedPayment = paymentRepository.save(testPayment);
@@ -222,6 +299,111 @@ class MongoDBIntegrationTest extends BaseIntegrationTest {
         assertTrue(allPayments.stream().anyMatch(p -> p.getId().equals(payment2.getId())));
     }
 
+    @Test
+    void findByUserId_WithPageable_ShouldReturnSlices() {
+        paymentRepository.saveAll(List.of(
+                createTestPayment(123L, 456L, PaymentStatus.SUCCESS),
+                createTestPayment(124L, 456L, PaymentStatus.FAILED),
+                createTestPayment(125L, 456L, PaymentStatus.SUCCESS)));
+
+        Slice<Payment> firstSlice = paymentRepository.findByUserId(456L, PageRequest.of(0, 2));
+        Slice<Payment> secondSlice = paymentRepository.findByUserId(456L, firstSlice.nextPageable());
+
+        assertEquals(2, firstSlice.getNumberOfElements());
+        assertTrue(firstSlice.hasNext());
+        assertEquals(1, secondSlice.getNumberOfElements());
+        assertFalse(secondSlice.hasNext());
+    }
+
+    @Test
+    void findByStatusInOrderByTimestampAsc_ShouldScrollWithKeyset() {
+        LocalDateTime baseTime = LocalDateTime.of(2024, 1, 15, 12, 0, 0);
+        paymentRepository.saveAll(List.of(
+                createTestPaymentWithTime(123L, 456L, PaymentStatus.FAILED, baseTime, new BigDecimal("1.00")),
+                createTestPaymentWithTime(124L, 456L, PaymentStatus.FAILED, baseTime.plusMinutes(1), new BigDecimal("2.00")),
+                createTestPaymentWithTime(125L, 789L, PaymentStatus.SUCCESS, baseTime.plusMinutes(2), new BigDecimal("3.00")),
+                createTestPaymentWithTime(126L, 789L, PaymentStatus.FAILED, baseTime.plusMinutes(3), new BigDecimal("4.00"))));
+
+        Window<PaymentSummary> firstWindow = paymentRepository.findByStatusInOrderByTimestampAsc(
+                List.of(PaymentStatus.FAILED), ScrollPosition.keyset(), Limit.of(2));
+        Window<PaymentSummary> secondWindow = paymentRepository.findByStatusInOrderByTimestampAsc(
+                List.of(PaymentStatus.FAILED), firstWindow.positionAt(firstWindow.size() - 1), Limit.of(2));
+
+        assertEquals(List.of(123L, 124L), firstWindow.stream().map(PaymentSummary::getOrderId).toList());
+        assertTrue(firstWindow.hasNext());
+        assertEquals(List.of(126L), secondWindow.stream().map(PaymentSummary::getOrderId).toList());
+        assertFalse(secondWindow.hasNext());
+    }
+
+    @Test
+    void streamByStatusIn_ShouldStreamProjectedPayments() {
+        paymentRepository.saveAll(List.of(
+                createTestPayment(123L, 456L, PaymentStatus.SUCCESS),
+                createTestPayment(124L, 456L, PaymentStatus.FAILED),
+                createTestPayment(125L, 789L, PaymentStatus.FAILED)));
+
+        try (Stream<PaymentSummary> failedPayments = paymentRepository.streamByStatusIn(List.of(PaymentStatus.FAILED))) {
+            List<PaymentSummary> summaries = failedPayments.toList();
+
+            assertEquals(2, summaries.size());
+            assertTrue(summaries.stream().allMatch(summary -> summary.getStatus() == PaymentStatus.FAILED));
+            assertTrue(summaries.stream().allMatch(summary -> summary.getPayment_amount() != null));
+        }
+    }
+
+    @Test
+    void streamByUserId_ShouldStreamOnlyUserPayments() {
+        paymentRepository.saveAll(List.of(
+                createTestPayment(123L, 456L, PaymentStatus.SUCCESS),
+                createTestPayment(124L, 789L, PaymentStatus.FAILED)));
+
+        try (Stream<PaymentSummary> userPayments = paymentRepository.streamByUserId(456L)) {
+            assertEquals(List.of(123L), userPayments.map(PaymentSummary::getOrderId).toList());
+        }
+    }
+
+    @Test
+    void indexes_ShouldBeCreatedForRepositoryQueries() {
+        List<String> indexNames = mongoTemplate.indexOps(Payment.class).getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .toList();
+
+        assertTrue(indexNames.containsAll(List.of(
+                "order_id_unique", "user_id_timestamp_idx", "timestamp_idx", "status_timestamp_idx")));
+    }
+
+    @Test
+    void save_ShouldStorePaymentsWithoutOrderId_WhenOrderIdIsUniqueOnlyWhenPresent() {
+        paymentRepository.save(createTestPayment(null, 456L, PaymentStatus.SUCCESS));
+        paymentRepository.save(createTestPayment(null, 789L, PaymentStatus.FAILED));
+
+        assertEquals(2, paymentRepository.count());
+    }
+
+    @Test
+    void repositoryQueries_ShouldNotRequireCollectionScans() {
+        paymentRepository.saveAll(List.of(
+                createTestPayment(123L, 456L, PaymentStatus.SUCCESS),
+                createTestPayment(124L, 789L, PaymentStatus.FAILED)));
+
+        List<String> collectionScans = new PaymentQueryPlanVerifier(mongoTemplate).findCollectionScans();
+
+        assertTrue(collectionScans.isEmpty(), "Queries planned as COLLSCAN: " + collectionScans);
+    }
+
+    @Test
+    void insertAllUnordered_ShouldInsertNonDuplicates_AndReturnRejectedDuplicates() {
+        paymentRepository.save(createTestPayment(123L, 456L, PaymentStatus.SUCCESS));
+        Payment duplicate = createTestPayment(123L, 456L, PaymentStatus.FAILED);
+        Payment fresh = createTestPayment(124L, 456L, PaymentStatus.SUCCESS);
+
+        List<Payment> rejected = paymentRepository.insertAllUnordered(List.of(duplicate, fresh));
+
+        assertEquals(List.of(duplicate), rejected);
+        assertTrue(paymentRepository.findById(fresh.getId()).isPresent());
+        assertEquals(2, paymentRepository.count());
+    }
+
     private Payment createTestPayment(Long orderId, Long userId, PaymentStatus status) {
         Payment payment = new Payment();
         payment.setId(UUID.randomUUID());
@@ -244,5 +426,9 @@ class MongoDBIntegrationTest extends BaseIntegrationTest {
         payment.setPayment_amount(amount);
         return payment;
     }
-}
 
+    private PaymentRollup rollupIncrement(LocalDateTime bucketStart, PaymentStatus status, BigDecimal amount) {
+        return new PaymentRollup("HOUR:" + status + ":" + bucketStart, RollupGranularity.HOUR, bucketStart, status,
+                1, amount);
+    }
+}
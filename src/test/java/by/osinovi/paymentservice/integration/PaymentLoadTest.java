@@ -0,0 +1,217 @@
+package by.osinovi.paymentservice.integration;
+
+import by.osinovi.paymentservice.cache.RecentOrderCache;
+import by.osinovi.paymentservice.dto.OrderMessage;
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.integration.config.BaseIntegrationTest;
+import by.osinovi.paymentservice.repository.PaymentRepository;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@Tag("load")
+@SpringBootTest
+@Testcontainers
+@DirtiesContext
+@EmbeddedKafka(partitions = 3,
+        topics = {"${spring.kafka.topics.orders}", "${spring.kafka.topics.payments}"},
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers",
+        brokerProperties = {"transaction.state.log.replication.factor=1", "transaction.state.log.min.isr=1"})
+public class PaymentLoadTest extends BaseIntegrationTest {
+
+    private static final int ORDERS = Integer.getInteger("load.orders", 20_000);
+    private static final int WARMUP_ORDERS = Integer.getInteger("load.warmup-orders", 2_000);
+    private static final int RATE = Integer.getInteger("load.rate", 1_000);
+    private static final long RANDOM_API_LATENCY_MS = Long.getLong("load.random-api-latency-ms", 50);
+    private static final long DRAIN_TIMEOUT_SECONDS = Long.getLong("load.drain-timeout-seconds", 120);
+    private static final String SINGLE_NUMBER_URI = "/integers/?num=1&min=1&max=100&col=1&base=10&format=plain&rnd=new";
+
+    private static WireMockServer wireMockServer;
+
+    @Autowired
+    private ProducerFactory<String, Object> producerFactory;
+
+    @Autowired
+    @Qualifier("paymentConsumerFactory")
+    private ConsumerFactory<String, Payment> paymentConsumerFactory;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private RecentOrderCache recentOrderCache;
+
+    @Value("${spring.kafka.topics.orders}")
+    private String ordersTopic;
+
+    @Value("${spring.kafka.topics.payments}")
+    private String paymentsTopic;
+
+    @Value("${random-api.pool.block-size}")
+    private int randomNumberBlockSize;
+
+    private final Map<Long, Long> scheduledSendNanos = new ConcurrentHashMap<>();
+    private final long[] latencyNanos = new long[ORDERS];
+    private final AtomicInteger measuredCount = new AtomicInteger();
+    private final AtomicLong lastReceivedNanos = new AtomicLong();
+    private final CountDownLatch allPaymentsReceived = new CountDownLatch(WARMUP_ORDERS + ORDERS);
+
+    private KafkaMessageListenerContainer<String, Payment> paymentsContainer;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("random-api-url", () -> "http://localhost:" + wireMockServer.port());
+    }
+
+    @BeforeAll
+    static void setUpClass() {
+        wireMockServer = new WireMockServer(wireMockConfig().dynamicPort().containerThreads(200));
+        wireMockServer.start();
+        WireMock.configureFor("localhost", wireMockServer.port());
+    }
+
+    @AfterAll
+    static void tearDownClass() {
+        wireMockServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+        recentOrderCache.clear();
+        WireMock.reset();
+
+        stubFor(get(urlEqualTo(SINGLE_NUMBER_URI))
+                .atPriority(1)
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "text/plain")
+                        .withFixedDelay((int) RANDOM_API_LATENCY_MS)
+                        .withBody("42")));
+        stubFor(get(urlPathEqualTo("/integers/"))
+                .atPriority(2)
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "text/plain")
+                        .withFixedDelay((int) RANDOM_API_LATENCY_MS)
+                        .withBody("42\n".repeat(randomNumberBlockSize))));
+
+        ContainerProperties containerProperties = new ContainerProperties(paymentsTopic);
+        containerProperties.setGroupId("payment-load-test-" + UUID.randomUUID());
+        containerProperties.setMessageListener((MessageListener<String, Payment>) record -> onPayment(record.value()));
+        paymentsContainer = new KafkaMessageListenerContainer<>(paymentConsumerFactory, containerProperties);
+        paymentsContainer.start();
+        ContainerTestUtils.waitForAssignment(paymentsContainer, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentsContainer.stop();
+    }
+
+    @Test
+    void sustainedOrderLoad_ShouldReportEndToEndLatencyAndThroughput() throws Exception {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RATE;
+        long startNanos;
+        try (Producer<String, Object> producer = producerFactory.createNonTransactionalProducer()) {
+            startNanos = System.nanoTime();
+            for (int i = 0; i < WARMUP_ORDERS + ORDERS; i++) {
+                long scheduledNanos = startNanos + i * intervalNanos;
+                long waitNanos = scheduledNanos - System.nanoTime();
+                if (waitNanos > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+                long orderId = i + 1L;
+                scheduledSendNanos.put(orderId, scheduledNanos);
+                producer.send(new ProducerRecord<>(ordersTopic, String.valueOf(orderId),
+                        new OrderMessage(orderId, orderId % 1_000, new BigDecimal("100.00"))));
+            }
+            producer.flush();
+        }
+        long producedNanos = System.nanoTime() - startNanos;
+
+        boolean drained = allPaymentsReceived.await(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        long[] latencies = Arrays.copyOf(latencyNanos, measuredCount.get());
+        Arrays.sort(latencies);
+        long measuredStartNanos = startNanos + WARMUP_ORDERS * intervalNanos;
+        double elapsedSeconds = (lastReceivedNanos.get() - measuredStartNanos) / 1e9;
+        log.info("Load test: target {} orders/s, produced {} orders in {} s, random API latency {} ms",
+                RATE, WARMUP_ORDERS + ORDERS, oneDecimal(producedNanos / 1e9), RANDOM_API_LATENCY_MS);
+        log.info("Load test: measured {}/{} payments, sustained {} orders/s, latency p50 {} ms, p99 {} ms, max {} ms",
+                latencies.length, ORDERS, oneDecimal(latencies.length / elapsedSeconds),
+                oneDecimal(percentileMillis(latencies, 0.50)), oneDecimal(percentileMillis(latencies, 0.99)),
+                oneDecimal(percentileMillis(latencies, 1.0)));
+
+        assertTrue(drained, "Only " + (WARMUP_ORDERS + ORDERS - allPaymentsReceived.getCount())
+                + " payment events were received within " + DRAIN_TIMEOUT_SECONDS + " seconds");
+    }
+
+    private void onPayment(Payment payment) {
+        long receivedNanos = System.nanoTime();
+        Long scheduledNanos = scheduledSendNanos.remove(payment.getOrderId());
+        if (scheduledNanos == null) {
+            return;
+        }
+        if (payment.getOrderId() > WARMUP_ORDERS) {
+            latencyNanos[measuredCount.getAndIncrement()] = receivedNanos - scheduledNanos;
+            lastReceivedNanos.accumulateAndGet(receivedNanos, Math::max);
+        }
+        allPaymentsReceived.countDown();
+    }
+
+    private static String oneDecimal(double value) {
+        return String.format("%.1f", value);
+    }
+
+    private static double percentileMillis(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0) {
+            return Double.NaN;
+        }
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1e6;
+    }
+}
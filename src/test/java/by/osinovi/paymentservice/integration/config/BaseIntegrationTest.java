@@ -6,11 +6,14 @@ import org.testcontainers.containers.MongoDBContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.Map;
+
 @Testcontainers
 public abstract class BaseIntegrationTest {
 
     @Container
     protected static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0")
+            .withTmpFs(Map.of("/data/db", "rw"))
             .withStartupTimeout(java.time.Duration.ofMinutes(2));
 
     @DynamicPropertySource
@@ -0,0 +1,93 @@
+package by.osinovi.paymentservice.kafka;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyOrderedExecutorTest {
+
+    private final KeyOrderedExecutor keyOrderedExecutor = new KeyOrderedExecutor(4, false);
+
+    @AfterEach
+    void tearDown() {
+        keyOrderedExecutor.shutdown();
+    }
+
+    @Test
+    void process_ShouldPreserveOrderPerKey_AndReturnResultsInInputOrder() {
+        List<String> items = List.of("a1", "b1", "a2", "b2", "a3", "c1");
+        List<String> processed = Collections.synchronizedList(new ArrayList<>());
+
+        KeyOrderedResult<String> result = keyOrderedExecutor.process(items, item -> item.charAt(0), item -> {
+            processed.add(item);
+            return item.toUpperCase();
+        });
+
+        assertFalse(result.isFailed());
+        assertEquals(List.of("A1", "B1", "A2", "B2", "A3", "C1"), result.completed());
+        assertEquals(List.of("a1", "a2", "a3"), processed.stream().filter(item -> item.startsWith("a")).toList());
+        assertEquals(List.of("b1", "b2"), processed.stream().filter(item -> item.startsWith("b")).toList());
+    }
+
+    @Test
+    void process_ShouldRunDifferentKeysInParallel() {
+        CountDownLatch bothKeysStarted = new CountDownLatch(2);
+
+        KeyOrderedResult<Boolean> result = keyOrderedExecutor.process(List.of(1, 2), Function.identity(), item -> {
+            bothKeysStarted.countDown();
+            try {
+                return bothKeysStarted.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+
+        assertEquals(List.of(true, true), result.completed());
+    }
+
+    @Test
+    void process_ShouldReportLowestFailedIndex_AndOnlyContiguousCompletedResults() {
+        IllegalStateException failure = new IllegalStateException("random API unavailable");
+        List<Integer> processed = Collections.synchronizedList(new ArrayList<>());
+
+        KeyOrderedResult<Integer> result = keyOrderedExecutor.process(List.of(10, 11, 20, 12, 21), item -> item / 10,
+                item -> {
+                    processed.add(item);
+                    if (item == 20) {
+                        throw failure;
+                    }
+                    return item;
+                });
+
+        assertTrue(result.isFailed());
+        assertEquals(2, result.failedIndex());
+        assertSame(failure, result.failure());
+        assertEquals(List.of(10, 11), result.completed());
+        assertFalse(processed.contains(21));
+    }
+
+    @Test
+    void process_ShouldRunLanesOnVirtualThreads_WhenVirtualThreadsEnabled() {
+        KeyOrderedExecutor virtualExecutor = new KeyOrderedExecutor(4, true);
+        try {
+            KeyOrderedResult<Boolean> result = virtualExecutor.process(List.of(1, 2, 3), Function.identity(),
+                    item -> Thread.currentThread().isVirtual());
+
+            assertEquals(List.of(true, true, true), result.completed());
+        } finally {
+            virtualExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package by.osinovi.paymentservice.kafka;
+
+import by.osinovi.paymentservice.dto.OrderMessage;
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.service.PaymentService;
+import by.osinovi.paymentservice.util.PaymentStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class KeyOrderedOrderConsumerTest {
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private PaymentProducer paymentProducer;
+
+    private KeyOrderedExecutor keyOrderedExecutor;
+    private KeyOrderedOrderConsumer consumer;
+
+    private final OrderMessage firstOrder = new OrderMessage(1L, 100L, new BigDecimal("10.00"));
+    private final OrderMessage secondOrder = new OrderMessage(2L, 200L, new BigDecimal("20.00"));
+    private final OrderMessage thirdOrder = new OrderMessage(3L, 100L, new BigDecimal("30.00"));
+
+    @BeforeEach
+    void setUp() {
+        keyOrderedExecutor = new KeyOrderedExecutor(4, false);
+        consumer = new KeyOrderedOrderConsumer(paymentService, paymentProducer, keyOrderedExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        keyOrderedExecutor.shutdown();
+    }
+
+    @Test
+    void handleCreateOrders_ShouldPublishAllPaymentsInOrder_WhenBatchSucceeds() {
+        Payment firstPayment = payment(firstOrder);
+        Payment secondPayment = payment(secondOrder);
+        Payment thirdPayment = payment(thirdOrder);
+        when(paymentService.createPayment(firstOrder)).thenReturn(firstPayment);
+        when(paymentService.createPayment(secondOrder)).thenReturn(secondPayment);
+        when(paymentService.createPayment(thirdOrder)).thenReturn(thirdPayment);
+
+        consumer.handleCreateOrders(List.of(firstOrder, secondOrder, thirdOrder));
+
+        verify(paymentProducer).publishCreatePaymentEvents(List.of(firstPayment, secondPayment, thirdPayment));
+    }
+
+    @Test
+    void handleCreateOrders_ShouldPublishCompletedPrefixAndFailAtFirstFailedRecord() {
+        Payment firstPayment = payment(firstOrder);
+        when(paymentService.createPayment(firstOrder)).thenReturn(firstPayment);
+        when(paymentService.createPayment(secondOrder)).thenThrow(new IllegalStateException("mongo down"));
+        lenient().when(paymentService.createPayment(thirdOrder)).thenReturn(payment(thirdOrder));
+
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+                () -> consumer.handleCreateOrders(List.of(firstOrder, secondOrder, thirdOrder)));
+
+        assertEquals(1, exception.getIndex());
+        verify(paymentProducer).publishCreatePaymentEvents(List.of(firstPayment));
+    }
+
+    @Test
+    void handleCreateOrders_ShouldLeavePublishingToOutbox_WhenOutboxEnabled() {
+        ReflectionTestUtils.setField(consumer, "outboxEnabled", true);
+        when(paymentService.createPayment(any(OrderMessage.class))).thenAnswer(
+                invocation -> payment(invocation.getArgument(0)));
+
+        consumer.handleCreateOrders(List.of(firstOrder, secondOrder));
+
+        verify(paymentProducer, never()).publishCreatePaymentEvents(anyList());
+    }
+
+    private Payment payment(OrderMessage orderMessage) {
+        return new Payment(UUID.randomUUID(), orderMessage.getOrderId(), orderMessage.getUserId(),
+                PaymentStatus.SUCCESS, LocalDateTime.now(), orderMessage.getTotalAmount());
+    }
+}
@@ -0,0 +1,142 @@
+package by.osinovi.paymentservice.kafka;
+
+import by.osinovi.paymentservice.entity.OutboxEvent;
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.repository.OutboxEventRepository;
+import by.osinovi.paymentservice.util.PaymentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.kafka.KafkaException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private PaymentProducer paymentProducer;
+
+    @InjectMocks
+    private OutboxRelay outboxRelay;
+
+    @Captor
+    private ArgumentCaptor<String> claimedByCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<Payment>> paymentsCaptor;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 2);
+        ReflectionTestUtils.setField(outboxRelay, "claimLease", Duration.ofSeconds(30));
+    }
+
+    @Test
+    void relay_ShouldPublishAndDeleteClaimedBatchesUntilOutboxIsDrained() {
+        OutboxEvent first = event();
+        OutboxEvent second = event();
+        OutboxEvent third = event();
+        when(outboxEventRepository.claimOldest(anyString(), any(LocalDateTime.class), any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(first, second), List.of(third));
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, times(2))
+                .claimOldest(claimedByCaptor.capture(), any(LocalDateTime.class), any(LocalDateTime.class), eq(2));
+        List<String> claims = claimedByCaptor.getAllValues();
+        assertNotEquals(claims.get(0), claims.get(1));
+        verify(paymentProducer, times(2)).publishCreatePaymentEvents(paymentsCaptor.capture());
+        assertEquals(List.of(first.getId(), second.getId()), ids(paymentsCaptor.getAllValues().get(0)));
+        assertEquals(List.of(third.getId()), ids(paymentsCaptor.getAllValues().get(1)));
+        verify(outboxEventRepository).deleteClaimed(claims.get(0));
+        verify(outboxEventRepository).deleteClaimed(claims.get(1));
+    }
+
+    @Test
+    void relay_ShouldClaimUntilLeaseExpires() {
+        ArgumentCaptor<LocalDateTime> nowCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> claimedUntilCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(outboxEventRepository.claimOldest(anyString(), nowCaptor.capture(), claimedUntilCaptor.capture(), eq(2)))
+                .thenReturn(List.of());
+
+        outboxRelay.relay();
+
+        assertEquals(nowCaptor.getValue().plusSeconds(30), claimedUntilCaptor.getValue());
+    }
+
+    @Test
+    void relay_ShouldReleaseClaimAndKeepEvents_WhenPublishingFails() {
+        when(outboxEventRepository.claimOldest(anyString(), any(LocalDateTime.class), any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(event()));
+        doThrow(new KafkaException("broker unavailable")).when(paymentProducer).publishCreatePaymentEvents(anyList());
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository)
+                .claimOldest(claimedByCaptor.capture(), any(LocalDateTime.class), any(LocalDateTime.class), eq(2));
+        verify(outboxEventRepository).releaseClaimed(claimedByCaptor.getValue());
+        verify(outboxEventRepository, never()).deleteClaimed(anyString());
+    }
+
+    @Test
+    void relay_ShouldStopPolling_WhenDeletingRelayedEventsFails() {
+        when(outboxEventRepository.claimOldest(anyString(), any(LocalDateTime.class), any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(event(), event()));
+        doThrow(new DataAccessResourceFailureException("mongo unavailable"))
+                .when(outboxEventRepository).deleteClaimed(anyString());
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, times(1))
+                .claimOldest(anyString(), any(LocalDateTime.class), any(LocalDateTime.class), eq(2));
+        verify(outboxEventRepository, never()).releaseClaimed(anyString());
+    }
+
+    @Test
+    void relay_ShouldDoNothing_WhenNoEventsCanBeClaimed() {
+        when(outboxEventRepository.claimOldest(anyString(), any(LocalDateTime.class), any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of());
+
+        outboxRelay.relay();
+
+        verify(paymentProducer, never()).publishCreatePaymentEvents(anyList());
+        verify(outboxEventRepository, never()).deleteClaimed(anyString());
+    }
+
+    private OutboxEvent event() {
+        Payment payment = new Payment(UUID.randomUUID(), 123L, 456L, PaymentStatus.SUCCESS, LocalDateTime.now(),
+                new BigDecimal("100.50"));
+        return new OutboxEvent(payment, LocalDateTime.now());
+    }
+
+    private static List<UUID> ids(List<Payment> payments) {
+        return payments.stream().map(Payment::getId).toList();
+    }
+}
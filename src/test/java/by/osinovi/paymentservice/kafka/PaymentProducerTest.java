@@ -0,0 +1,140 @@
+package by.osinovi.paymentservice.kafka;
+
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.util.PaymentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentProducerTest {
+
+    private static final String PAYMENTS_TOPIC = "payments-topic";
+
+    @Mock
+    private KafkaTemplate<String, Payment> paymentKafkaTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentProducer paymentProducer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        paymentProducer = new PaymentProducer(paymentKafkaTemplate, meterRegistry, 1);
+        ReflectionTestUtils.setField(paymentProducer, "paymentsTopic", PAYMENTS_TOPIC);
+        ReflectionTestUtils.setField(paymentProducer, "inFlightTimeout", Duration.ofMillis(50));
+    }
+
+    @Test
+    void sendCreatePaymentEvent_ShouldReleaseInFlightPermit_WhenSendCompletes() {
+        Payment payment = payment();
+        when(paymentKafkaTemplate.send(eq(PAYMENTS_TOPIC), anyString(), any(Payment.class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResult(payment)));
+
+        paymentProducer.sendCreatePaymentEvent(payment).join();
+        paymentProducer.sendCreatePaymentEvent(payment).join();
+
+        verify(paymentKafkaTemplate, times(2)).send(PAYMENTS_TOPIC, payment.getId().toString(), payment);
+        assertEquals(0.0, meterRegistry.get("payment.events.in-flight").gauge().value());
+    }
+
+    @Test
+    void sendCreatePaymentEvent_ShouldThrowException_WhenInFlightLimitIsReached() {
+        when(paymentKafkaTemplate.send(eq(PAYMENTS_TOPIC), anyString(), any(Payment.class)))
+                .thenReturn(new CompletableFuture<>());
+
+        paymentProducer.sendCreatePaymentEvent(payment());
+
+        assertThrows(KafkaException.class, () -> paymentProducer.sendCreatePaymentEvent(payment()));
+        assertEquals(1.0, meterRegistry.get("payment.events.in-flight").gauge().value());
+    }
+
+    @Test
+    void sendCreatePaymentEvent_ShouldSurfaceFailureWithoutResending_WhenSendFails() {
+        Payment payment = payment();
+        when(paymentKafkaTemplate.send(eq(PAYMENTS_TOPIC), anyString(), any(Payment.class)))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("broker unavailable")));
+
+        CompletableFuture<SendResult<String, Payment>> sendFuture = paymentProducer.sendCreatePaymentEvent(payment);
+
+        assertTrue(sendFuture.isCompletedExceptionally());
+        assertEquals(1.0, meterRegistry.get("payment.events.failed").counter().count());
+        assertEquals(0.0, meterRegistry.get("payment.events.in-flight").gauge().value());
+        verify(paymentKafkaTemplate, times(1)).send(PAYMENTS_TOPIC, payment.getId().toString(), payment);
+        verify(paymentKafkaTemplate, never()).executeInTransaction(any());
+    }
+
+    @Test
+    void sendCreatePaymentEvent_ShouldRecordSendLatencyByOutcome() {
+        Payment delivered = payment();
+        Payment rejected = payment();
+        when(paymentKafkaTemplate.send(PAYMENTS_TOPIC, delivered.getId().toString(), delivered))
+                .thenReturn(CompletableFuture.completedFuture(sendResult(delivered)));
+        when(paymentKafkaTemplate.send(PAYMENTS_TOPIC, rejected.getId().toString(), rejected))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("broker unavailable")));
+
+        paymentProducer.sendCreatePaymentEvent(delivered).join();
+        paymentProducer.sendCreatePaymentEvent(rejected);
+
+        assertEquals(1, meterRegistry.get("payment.events.send").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("payment.events.send").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    void sendCreatePaymentEvents_ShouldCompleteAfterAllSendsComplete() {
+        paymentProducer = new PaymentProducer(paymentKafkaTemplate, meterRegistry, 10);
+        ReflectionTestUtils.setField(paymentProducer, "paymentsTopic", PAYMENTS_TOPIC);
+        ReflectionTestUtils.setField(paymentProducer, "inFlightTimeout", Duration.ofMillis(50));
+        Payment first = payment();
+        Payment second = payment();
+        CompletableFuture<SendResult<String, Payment>> secondSend = new CompletableFuture<>();
+        when(paymentKafkaTemplate.send(PAYMENTS_TOPIC, first.getId().toString(), first))
+                .thenReturn(CompletableFuture.completedFuture(sendResult(first)));
+        when(paymentKafkaTemplate.send(PAYMENTS_TOPIC, second.getId().toString(), second)).thenReturn(secondSend);
+
+        CompletableFuture<Void> allSent = paymentProducer.sendCreatePaymentEvents(List.of(first, second));
+
+        assertFalse(allSent.isDone());
+        secondSend.complete(sendResult(second));
+        assertTrue(allSent.isDone());
+    }
+
+    private Payment payment() {
+        return new Payment(UUID.randomUUID(), 123L, 456L, PaymentStatus.SUCCESS, LocalDateTime.now(),
+                new BigDecimal("100.50"));
+    }
+
+    private SendResult<String, Payment> sendResult(Payment payment) {
+        return new SendResult<>(new ProducerRecord<>(PAYMENTS_TOPIC, payment.getId().toString(), payment),
+                new RecordMetadata(new TopicPartition(PAYMENTS_TOPIC, 0), 0, 0, 0, 0, 0));
+    }
+}
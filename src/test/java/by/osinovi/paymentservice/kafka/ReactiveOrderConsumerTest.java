@@ -0,0 +1,117 @@
+package by.osinovi.paymentservice.kafka;
+
+import by.osinovi.paymentservice.dto.OrderMessage;
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.service.ReactivePaymentService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import reactor.core.publisher.Flux;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveOrderConsumerTest {
+
+    @Mock
+    private KafkaReceiver<String, OrderMessage> orderReceiver;
+
+    @Mock
+    private ReactivePaymentService reactivePaymentService;
+
+    @Mock
+    private PaymentProducer paymentProducer;
+
+    @InjectMocks
+    private ReactiveOrderConsumer reactiveOrderConsumer;
+
+    @Test
+    void handleCreateOrders_ShouldPublishEventsAndAcknowledgeOffsets_WhenPaymentsAreCreated() {
+        ReceiverOffset offset = mock(ReceiverOffset.class);
+        OrderMessage orderMessage = new OrderMessage();
+        Payment payment = new Payment();
+        when(reactivePaymentService.createPayments(List.of(orderMessage))).thenReturn(Flux.just(payment));
+
+        StepVerifier.create(reactiveOrderConsumer.handleCreateOrders(List.of(record(orderMessage, offset))))
+                .verifyComplete();
+
+        verify(paymentProducer).publishCreatePaymentEvents(List.of(payment));
+        verify(offset).acknowledge();
+    }
+
+    @Test
+    void handleCreateOrders_ShouldNotAcknowledgeOffsets_WhenPublishingFails() {
+        ReceiverOffset offset = mock(ReceiverOffset.class);
+        OrderMessage orderMessage = new OrderMessage();
+        when(reactivePaymentService.createPayments(List.of(orderMessage))).thenReturn(Flux.just(new Payment()));
+        doThrow(new IllegalStateException("broker down")).when(paymentProducer).publishCreatePaymentEvents(anyList());
+
+        StepVerifier.create(reactiveOrderConsumer.handleCreateOrders(List.of(record(orderMessage, offset))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        verify(offset, never()).acknowledge();
+    }
+
+    @Test
+    void handleCreateOrders_ShouldSkipAndAcknowledgeRecordsWithoutOrder_WhenValueIsMissing() {
+        ReceiverOffset tombstoneOffset = mock(ReceiverOffset.class);
+        ReceiverOffset undeserializableOffset = mock(ReceiverOffset.class);
+        ReceiverOffset orderOffset = mock(ReceiverOffset.class);
+        OrderMessage orderMessage = new OrderMessage();
+        ReceiverRecord<String, OrderMessage> undeserializable = record(null, undeserializableOffset);
+        undeserializable.headers().add(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, new byte[0]);
+        when(reactivePaymentService.createPayments(List.of(orderMessage))).thenReturn(Flux.just(new Payment()));
+
+        StepVerifier.create(reactiveOrderConsumer.handleCreateOrders(List.of(record(null, tombstoneOffset),
+                        undeserializable, record(orderMessage, orderOffset))))
+                .verifyComplete();
+
+        verify(reactivePaymentService).createPayments(List.of(orderMessage));
+        verify(tombstoneOffset).acknowledge();
+        verify(undeserializableOffset).acknowledge();
+        verify(orderOffset).acknowledge();
+    }
+
+    @Test
+    void handleCreateOrders_ShouldSkipOnlyRejectedOrder_WhenBatchIsRejected() {
+        ReceiverOffset rejectedOffset = mock(ReceiverOffset.class);
+        ReceiverOffset acceptedOffset = mock(ReceiverOffset.class);
+        OrderMessage rejected = new OrderMessage(1L, 1L, null);
+        OrderMessage accepted = new OrderMessage(2L, 1L, BigDecimal.TEN);
+        Payment payment = new Payment();
+        when(reactivePaymentService.createPayments(List.of(rejected, accepted)))
+                .thenReturn(Flux.error(new IllegalArgumentException("invalid amount")));
+        when(reactivePaymentService.createPayments(List.of(rejected)))
+                .thenReturn(Flux.error(new IllegalArgumentException("invalid amount")));
+        when(reactivePaymentService.createPayments(List.of(accepted))).thenReturn(Flux.just(payment));
+
+        StepVerifier.create(reactiveOrderConsumer.handleCreateOrders(List.of(record(rejected, rejectedOffset),
+                        record(accepted, acceptedOffset))))
+                .verifyComplete();
+
+        verify(paymentProducer).publishCreatePaymentEvents(List.of(payment));
+        verify(rejectedOffset).acknowledge();
+        verify(acceptedOffset).acknowledge();
+    }
+
+    private static ReceiverRecord<String, OrderMessage> record(OrderMessage orderMessage, ReceiverOffset offset) {
+        return new ReceiverRecord<>(new ConsumerRecord<>("orders-topic", 0, 0L, "key", orderMessage), offset);
+    }
+}
@@ -0,0 +1,124 @@
+package by.osinovi.paymentservice.kafka;
+
+import by.osinovi.paymentservice.dto.OrderMessage;
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.service.PaymentService;
+import by.osinovi.paymentservice.util.OrderLogContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.MDC;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindOrderConsumerTest {
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private PaymentProducer paymentProducer;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    @Mock
+    private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    @InjectMocks
+    private WriteBehindOrderConsumer writeBehindOrderConsumer;
+
+
+    @Test
+    void handleCreateOrder_ShouldAcknowledgeOnlyAfterPersistAndPublish() {
+        OrderMessage orderMessage = new OrderMessage();
+        Payment payment = new Payment();
+        CompletableFuture<Payment> persisted = new CompletableFuture<>();
+        when(paymentService.createPaymentWriteBehind(orderMessage)).thenReturn(persisted);
+
+        writeBehindOrderConsumer.handleCreateOrder(orderMessage, acknowledgment);
+        writeBehindOrderConsumer.publishPersistedPayments();
+        verifyNoInteractions(paymentProducer, acknowledgment);
+
+        persisted.complete(payment);
+        writeBehindOrderConsumer.publishPersistedPayments();
+
+        verify(paymentProducer).publishCreatePaymentEvents(List.of(payment));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void publishPersistedPayments_ShouldRetryWithoutAcknowledging_WhenPublishFails() {
+        OrderMessage orderMessage = new OrderMessage();
+        Payment payment = new Payment();
+        when(paymentService.createPaymentWriteBehind(orderMessage)).thenReturn(CompletableFuture.completedFuture(payment));
+        doThrow(new KafkaException("broker down")).doNothing().when(paymentProducer).publishCreatePaymentEvents(anyList());
+
+        writeBehindOrderConsumer.handleCreateOrder(orderMessage, acknowledgment);
+        writeBehindOrderConsumer.publishPersistedPayments();
+        verify(acknowledgment, never()).acknowledge();
+        writeBehindOrderConsumer.publishPersistedPayments();
+
+        verify(paymentProducer, times(2)).publishCreatePaymentEvents(List.of(payment));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void handleCreateOrder_ShouldLeaveOrderUnacknowledgedAndPauseConsumption_WhenPersistFails() {
+        OrderMessage orderMessage = new OrderMessage();
+        MessageListenerContainer container = mock(MessageListenerContainer.class);
+        when(kafkaListenerEndpointRegistry.getListenerContainer(WriteBehindOrderConsumer.LISTENER_ID)).thenReturn(container);
+        when(paymentService.createPaymentWriteBehind(orderMessage))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("unmappable payment")));
+
+        writeBehindOrderConsumer.handleCreateOrder(orderMessage, acknowledgment);
+        writeBehindOrderConsumer.publishPersistedPayments();
+
+        verify(container).pause();
+        verify(paymentService, times(1)).createPaymentWriteBehind(orderMessage);
+        verifyNoInteractions(paymentProducer, acknowledgment);
+    }
+
+    @Test
+    void handleCreateOrder_ShouldLogPersistFailureWithOrderContext_WhenPersistFailsAfterListenerReturns() {
+        OrderMessage orderMessage = new OrderMessage();
+        orderMessage.setOrderId(123L);
+        orderMessage.setUserId(456L);
+        CompletableFuture<Payment> persisted = new CompletableFuture<>();
+        AtomicReference<String> orderIdInContext = new AtomicReference<>();
+        AtomicReference<String> userIdInContext = new AtomicReference<>();
+        when(kafkaListenerEndpointRegistry.getListenerContainer(WriteBehindOrderConsumer.LISTENER_ID)).thenAnswer(invocation -> {
+            orderIdInContext.set(MDC.get(OrderLogContext.ORDER_ID));
+            userIdInContext.set(MDC.get(OrderLogContext.USER_ID));
+            return mock(MessageListenerContainer.class);
+        });
+        when(paymentService.createPaymentWriteBehind(orderMessage)).thenReturn(persisted);
+
+        writeBehindOrderConsumer.handleCreateOrder(orderMessage, acknowledgment);
+        persisted.completeExceptionally(new IllegalStateException("unmappable payment"));
+
+        assertEquals("123", orderIdInContext.get());
+        assertEquals("456", userIdInContext.get());
+        assertNull(MDC.get(OrderLogContext.ORDER_ID));
+    }
+}
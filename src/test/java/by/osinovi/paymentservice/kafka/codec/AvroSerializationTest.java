@@ -0,0 +1,117 @@
+package by.osinovi.paymentservice.kafka.codec;
+
+import by.osinovi.paymentservice.dto.OrderMessage;
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.util.PaymentStatus;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvroSerializationTest {
+
+    private static final String TOPIC = "payments-topic";
+
+    private LocalSchemaRegistry schemaRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        schemaRegistry = new LocalSchemaRegistry("classpath*:avro/*/v*.avsc");
+    }
+
+    @Test
+    void payment_ShouldRoundTripAllFields() {
+        Payment payment = new Payment(UUID.randomUUID(), 123L, 456L, PaymentStatus.FAILED,
+                LocalDateTime.of(2024, 1, 15, 12, 30, 45, 123_456_000), new BigDecimal("100.50"));
+
+        Payment result = paymentDeserializer(schemaRegistry).deserialize(TOPIC,
+                new AvroSerializer<>(schemaRegistry, new PaymentAvroCodec()).serialize(TOPIC, payment));
+
+        assertEquals(payment.getId(), result.getId());
+        assertEquals(payment.getOrderId(), result.getOrderId());
+        assertEquals(payment.getUserId(), result.getUserId());
+        assertEquals(payment.getStatus(), result.getStatus());
+        assertEquals(payment.getTimestamp(), result.getTimestamp());
+        assertEquals(payment.getPayment_amount(), result.getPayment_amount());
+    }
+
+    @Test
+    void payment_ShouldRoundTripMissingFieldsAsNull() {
+        Payment result = paymentDeserializer(schemaRegistry).deserialize(TOPIC,
+                new AvroSerializer<>(schemaRegistry, new PaymentAvroCodec()).serialize(TOPIC, new Payment()));
+
+        assertNull(result.getId());
+        assertNull(result.getStatus());
+        assertNull(result.getTimestamp());
+        assertNull(result.getPayment_amount());
+    }
+
+    @Test
+    void orderMessage_ShouldKeepExactAmountAndBeSmallerThanJson() {
+        OrderMessage orderMessage = new OrderMessage(123L, 456L, new BigDecimal("12345.6700"));
+
+        byte[] avro = new AvroSerializer<>(schemaRegistry, new OrderMessageAvroCodec()).serialize(TOPIC, orderMessage);
+        byte[] json;
+        try (JsonSerializer<OrderMessage> jsonSerializer = new JsonSerializer<>()) {
+            json = jsonSerializer.serialize(TOPIC, orderMessage);
+        }
+        OrderMessage result = new AvroDeserializer<>(schemaRegistry, new OrderMessageAvroCodec(),
+                new JsonDeserializer<>(OrderMessage.class)).deserialize(TOPIC, avro);
+
+        assertEquals(new BigDecimal("12345.6700"), result.getTotalAmount());
+        assertEquals(123L, result.getOrderId());
+        assertTrue(avro.length < json.length / 2);
+    }
+
+    @Test
+    void deserialize_ShouldFallBackToJson_WhenPayloadIsJson() {
+        OrderMessage orderMessage = new OrderMessage(123L, 456L, new BigDecimal("100.50"));
+        byte[] json;
+        try (JsonSerializer<OrderMessage> jsonSerializer = new JsonSerializer<>()) {
+            json = jsonSerializer.serialize(TOPIC, orderMessage);
+        }
+
+        OrderMessage result = new AvroDeserializer<>(schemaRegistry, new OrderMessageAvroCodec(),
+                new JsonDeserializer<>(OrderMessage.class, false)).deserialize(TOPIC, json);
+
+        assertEquals(123L, result.getOrderId());
+        assertEquals(new BigDecimal("100.50"), result.getTotalAmount());
+    }
+
+    @Test
+    void deserialize_ShouldReadOlderSchemaVersion_WhenReaderSchemaEvolved() throws IOException {
+        LocalSchemaRegistry evolvedRegistry = new LocalSchemaRegistry("classpath*:avro-evolution/*/v*.avsc");
+        Payment payment = new Payment(UUID.randomUUID(), 123L, 456L, PaymentStatus.SUCCESS,
+                LocalDateTime.of(2024, 1, 15, 12, 30), new BigDecimal("100.50"));
+
+        Payment result = paymentDeserializer(evolvedRegistry).deserialize(TOPIC,
+                new AvroSerializer<>(schemaRegistry, new PaymentAvroCodec()).serialize(TOPIC, payment));
+
+        assertEquals(2, evolvedRegistry.latestVersion("payment"));
+        assertEquals(payment.getId(), result.getId());
+        assertEquals(payment.getPayment_amount(), result.getPayment_amount());
+    }
+
+    @Test
+    void deserialize_ShouldThrowException_WhenWireFormatIsUnknown() {
+        assertThrows(SerializationException.class,
+                () -> paymentDeserializer(schemaRegistry).deserialize(TOPIC, new byte[]{7, 0, 0, 0, 1, 2}));
+        assertThrows(SerializationException.class,
+                () -> paymentDeserializer(schemaRegistry).deserialize(TOPIC, new byte[]{0, 0, 0, 0, 9, 2}));
+    }
+
+    private AvroDeserializer<Payment> paymentDeserializer(LocalSchemaRegistry registry) {
+        return new AvroDeserializer<>(registry, new PaymentAvroCodec(), new JsonDeserializer<>(Payment.class));
+    }
+}
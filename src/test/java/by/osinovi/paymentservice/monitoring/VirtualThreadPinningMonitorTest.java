@@ -0,0 +1,44 @@
+package by.osinovi.paymentservice.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    void start_ShouldRecordPinnedVirtualThreads_WhenBlockingInsideSynchronizedBlock() {
+        monitor.start();
+        Object lock = new Object();
+
+        await().atMost(Duration.ofSeconds(15)).untilAsserted(() -> {
+            Thread.ofVirtual().start(() -> {
+                synchronized (lock) {
+                    sleep(Duration.ofMillis(50));
+                }
+            }).join();
+            assertTrue(meterRegistry.get("jvm.threads.virtual.pinned").timer().count() > 0);
+        });
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package by.osinovi.paymentservice.repository;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaymentQueryPlanVerifierTest {
+
+    @Test
+    void containsCollectionScan_ShouldReturnTrue_WhenWinningPlanIsCollectionScan() {
+        Document explain = Document.parse("""
+                { queryPlanner: { winningPlan: { stage: 'COLLSCAN', filter: { user_id: { $eq: 0 } } }, rejectedPlans: [] } }
+                """);
+
+        assertTrue(PaymentQueryPlanVerifier.containsCollectionScan(explain, false));
+    }
+
+    @Test
+    void containsCollectionScan_ShouldReturnFalse_WhenWinningPlanUsesIndex() {
+        Document explain = Document.parse("""
+                { queryPlanner: {
+                    winningPlan: { stage: 'FETCH', inputStage: { stage: 'IXSCAN', indexName: 'user_id_idx' } },
+                    rejectedPlans: [ { stage: 'COLLSCAN' } ] } }
+                """);
+
+        assertFalse(PaymentQueryPlanVerifier.containsCollectionScan(explain, false));
+    }
+
+    @Test
+    void containsCollectionScan_ShouldInspectAggregationStages() {
+        Document explain = new Document("stages", List.of(
+                Document.parse("{ $cursor: { queryPlanner: { winningPlan: { queryPlan: { stage: 'COLLSCAN' } } } } }")));
+
+        assertTrue(PaymentQueryPlanVerifier.containsCollectionScan(explain, false));
+    }
+}
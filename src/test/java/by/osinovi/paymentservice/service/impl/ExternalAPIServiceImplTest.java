@@ -1,18 +1,41 @@
 package by.osinovi.paymentservice.service.impl;
 
+import by.osinovi.paymentservice.util.CircuitBreaker;
 import by.osinovi.paymentservice.util.PaymentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.http.MediaType;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.test.StepVerifier;
+
+import java.net.ConnectException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -32,14 +55,27 @@ class ExternalAPIServiceImplTest {
     @Mock
     private RestClient.ResponseSpec responseSpec;
 
+    @Mock
+    private RandomNumberPool randomNumberPool;
+
+    @Mock
+    private LocalRandomStatusSource localRandomStatusSource;
+
+    @Spy
+    private CircuitBreaker randomApiCircuitBreaker =
+            new CircuitBreaker("random-api", 2, Duration.ofMinutes(1), 1, Clock.systemUTC());
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private ExternalAPIServiceImpl externalAPIService;
 
     @BeforeEach
     void setUp() {
-        when(restClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(any(String.class))).thenReturn(requestHeadersSpec);
-        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        lenient().when(restClient.get()).thenReturn(requestHeadersUriSpec);
+        lenient().when(requestHeadersUriSpec.uri(any(String.class))).thenReturn(requestHeadersSpec);
+        lenient().when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
     }
 
     @Test
@@ -172,4 +208,234 @@ class ExternalAPIServiceImplTest {
         verify(requestHeadersSpec, times(1)).retrieve();
         verify(responseSpec, times(1)).body(String.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getStatus_ShouldUseLocalFallback_WhenRestClientThrowsExceptionAndFallbackEnabled() {
+        ReflectionTestUtils.setField(externalAPIService, "fallbackEnabled", true);
+        when(responseSpec.body(String.class)).thenThrow(new RestClientException("Read timed out"));
+        when(localRandomStatusSource.nextStatus()).thenReturn(PaymentStatus.SUCCESS);
+
+        PaymentStatus result = externalAPIService.getStatus();
+
+        assertEquals(PaymentStatus.SUCCESS, result);
+        verify(randomApiCircuitBreaker, times(1)).onFailure();
+        verify(localRandomStatusSource, times(1)).nextStatus();
+    }
+
+    @Test
+    void getStatus_ShouldStopCallingApi_WhenCircuitBreakerOpens() {
+        when(responseSpec.body(String.class)).thenThrow(new RestClientException("Connection failed"));
+
+        assertThrows(RuntimeException.class, () -> externalAPIService.getStatus());
+        assertThrows(RuntimeException.class, () -> externalAPIService.getStatus());
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> externalAPIService.getStatus());
+
+        assertEquals("Random API circuit breaker is open", exception.getMessage());
+        assertEquals(CircuitBreaker.State.OPEN, randomApiCircuitBreaker.getState());
+        verify(restClient, times(2)).get();
+    }
+
+    @Test
+    void getStatus_ShouldUseLocalFallback_WhenCircuitBreakerIsOpenAndFallbackEnabled() {
+        ReflectionTestUtils.setField(externalAPIService, "fallbackEnabled", true);
+        randomApiCircuitBreaker.onFailure();
+        randomApiCircuitBreaker.onFailure();
+        when(localRandomStatusSource.nextStatus()).thenReturn(PaymentStatus.FAILED);
+
+        PaymentStatus result = externalAPIService.getStatus();
+
+        assertEquals(PaymentStatus.FAILED, result);
+        verify(restClient, never()).get();
+    }
+
+    @Test
+    void getStatusAsync_ShouldUseLocalFallback_WhenApiFailsAndFallbackEnabled() {
+        ExternalAPIServiceImpl asyncService = asyncServiceRespondingWith(HttpStatus.SERVICE_UNAVAILABLE, "");
+        ReflectionTestUtils.setField(asyncService, "fallbackEnabled", true);
+        when(localRandomStatusSource.nextStatus()).thenReturn(PaymentStatus.SUCCESS);
+
+        StepVerifier.create(asyncService.getStatusAsync())
+                .expectNext(PaymentStatus.SUCCESS)
+                .verifyComplete();
+        verify(randomApiCircuitBreaker, times(1)).onFailure();
+    }
+
+    @Test
+    void getStatus_ShouldUsePooledNumber_WhenPoolIsNotEmpty() {
+        when(randomNumberPool.poll()).thenReturn(OptionalInt.of(7));
+
+        PaymentStatus result = externalAPIService.getStatus();
+
+        assertEquals(PaymentStatus.FAILED, result);
+        verify(restClient, never()).get();
+    }
+
+    @Test
+    void getStatus_ShouldCallApi_WhenPoolIsEmpty() {
+        when(randomNumberPool.poll()).thenReturn(OptionalInt.empty());
+        when(responseSpec.body(String.class)).thenReturn("8");
+
+        PaymentStatus result = externalAPIService.getStatus();
+
+        assertEquals(PaymentStatus.SUCCESS, result);
+        verify(randomNumberPool, times(1)).poll();
+        verify(restClient, times(1)).get();
+    }
+
+    @Test
+    void getStatus_ShouldRecordLatencyAndStatusOutcome() {
+        when(randomNumberPool.poll()).thenReturn(OptionalInt.of(7), OptionalInt.of(8), OptionalInt.of(9));
+
+        externalAPIService.getStatus();
+        externalAPIService.getStatus();
+        externalAPIService.getStatus();
+
+        assertEquals(3, meterRegistry.get("payment.status.resolve").timer().count());
+        assertEquals(2.0, meterRegistry.get("payment.status").tag("status", "FAILED").counter().count());
+        assertEquals(1.0, meterRegistry.get("payment.status").tag("status", "SUCCESS").counter().count());
+    }
+
+    @Test
+    void getStatusAsync_ShouldRecordLatencyAndStatusOutcome_WhenSubscribed() {
+        ExternalAPIServiceImpl asyncService = asyncServiceRespondingWith(HttpStatus.OK, "42");
+
+        Mono<PaymentStatus> status = asyncService.getStatusAsync();
+        assertEquals(0, meterRegistry.get("payment.status.resolve").timer().count());
+
+        StepVerifier.create(status)
+                .expectNext(PaymentStatus.SUCCESS)
+                .verifyComplete();
+        assertEquals(1, meterRegistry.get("payment.status.resolve").timer().count());
+        assertEquals(1.0, meterRegistry.get("payment.status").tag("status", "SUCCESS").counter().count());
+    }
+
+    @Test
+    void getStatusAsync_ShouldUsePooledNumber_WhenPoolIsNotEmpty() {
+        ExternalAPIServiceImpl asyncService = asyncServiceRespondingWith(HttpStatus.SERVICE_UNAVAILABLE, "");
+        when(randomNumberPool.poll()).thenReturn(OptionalInt.of(64));
+
+        StepVerifier.create(asyncService.getStatusAsync())
+                .expectNext(PaymentStatus.SUCCESS)
+                .verifyComplete();
+    }
+
+    @Test
+    void getStatusAsync_ShouldReturnSuccess_WhenRandomNumberIsEven() {
+        ExternalAPIServiceImpl asyncService = asyncServiceRespondingWith(HttpStatus.OK, "42");
+
+        StepVerifier.create(asyncService.getStatusAsync())
+                .expectNext(PaymentStatus.SUCCESS)
+                .verifyComplete();
+    }
+
+    @Test
+    void getStatusAsync_ShouldReturnFailed_WhenRandomNumberIsOdd() {
+        ExternalAPIServiceImpl asyncService = asyncServiceRespondingWith(HttpStatus.OK, " 43 ");
+
+        StepVerifier.create(asyncService.getStatusAsync())
+                .expectNext(PaymentStatus.FAILED)
+                .verifyComplete();
+    }
+
+    @Test
+    void getStatusAsync_ShouldFail_WhenResponseIsEmpty() {
+        ExternalAPIServiceImpl asyncService = asyncServiceRespondingWith(HttpStatus.OK, "");
+
+        StepVerifier.create(asyncService.getStatusAsync())
+                .expectErrorMessage("Empty or invalid response from API")
+                .verify();
+    }
+
+    @Test
+    void getStatusAsync_ShouldFailWithIllegalArgumentException_WhenRandomNumberIsNegative() {
+        ExternalAPIServiceImpl asyncService = asyncServiceRespondingWith(HttpStatus.OK, "-1");
+
+        StepVerifier.create(asyncService.getStatusAsync())
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void getStatusAsync_ShouldFail_WhenApiRespondsWithServerError() {
+        ExternalAPIServiceImpl asyncService = asyncServiceRespondingWith(HttpStatus.SERVICE_UNAVAILABLE, "");
+
+        StepVerifier.create(asyncService.getStatusAsync())
+                .expectErrorMessage("Failed to call random API")
+                .verify();
+    }
+
+    @Test
+    void getStatusAsync_ShouldCallRestClientOnVirtualThread_WhenVirtualThreadsEnabled() {
+        ReflectionTestUtils.setField(externalAPIService, "virtualThreadsEnabled", true);
+        AtomicBoolean calledOnVirtualThread = new AtomicBoolean();
+        when(responseSpec.body(String.class)).thenAnswer(invocation -> {
+            calledOnVirtualThread.set(Thread.currentThread().isVirtual());
+            return "42";
+        });
+
+        StepVerifier.create(externalAPIService.getStatusAsync())
+                .expectNext(PaymentStatus.SUCCESS)
+                .verifyComplete();
+        assertTrue(calledOnVirtualThread.get());
+
+        Scheduler virtualThreadScheduler =
+                (Scheduler) ReflectionTestUtils.getField(externalAPIService, "virtualThreadScheduler");
+        externalAPIService.shutdown();
+        assertTrue(virtualThreadScheduler.isDisposed());
+    }
+
+    @Test
+    void getStatusAsync_ShouldNotCreateVirtualThreadScheduler_WhenVirtualThreadsDisabled() {
+        ExternalAPIServiceImpl asyncService = asyncServiceRespondingWith(HttpStatus.OK, "42");
+
+        StepVerifier.create(asyncService.getStatusAsync())
+                .expectNext(PaymentStatus.SUCCESS)
+                .verifyComplete();
+
+        assertNull(ReflectionTestUtils.getField(asyncService, "virtualThreadScheduler"));
+    }
+
+    @Test
+    void getStatusAsync_ShouldFail_WhenConnectionFails() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.error(new WebClientRequestException(
+                        new ConnectException("Connection refused"), request.method(), request.url(), request.headers())))
+                .build();
+        ExternalAPIServiceImpl asyncService = new ExternalAPIServiceImpl(restClient, webClient, randomNumberPool,
+                randomApiCircuitBreaker, localRandomStatusSource, meterRegistry);
+
+        StepVerifier.create(asyncService.getStatusAsync())
+                .expectErrorMessage("Failed to call random API")
+                .verify();
+    }
+
+    @Test
+    void getStatusAsync_ShouldReleaseProbePermit_WhenHalfOpenProbeIsCancelled() {
+        CircuitBreaker halfOpenCircuitBreaker = new CircuitBreaker("random-api", 1, Duration.ZERO, 1, Clock.systemUTC());
+        halfOpenCircuitBreaker.onFailure();
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.never())
+                .build();
+        ExternalAPIServiceImpl asyncService = new ExternalAPIServiceImpl(restClient, webClient, randomNumberPool,
+                halfOpenCircuitBreaker, localRandomStatusSource, meterRegistry);
+
+        StepVerifier.create(asyncService.getStatusAsync())
+                .expectSubscription()
+                .thenCancel()
+                .verify();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, halfOpenCircuitBreaker.getState());
+        assertTrue(halfOpenCircuitBreaker.tryAcquirePermission());
+    }
+
+    private ExternalAPIServiceImpl asyncServiceRespondingWith(HttpStatus status, String body) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(status)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN_VALUE)
+                        .body(body)
+                        .build()))
+                .build();
+        return new ExternalAPIServiceImpl(restClient, webClient, randomNumberPool,
+                randomApiCircuitBreaker, localRandomStatusSource, meterRegistry);
+    }
+}
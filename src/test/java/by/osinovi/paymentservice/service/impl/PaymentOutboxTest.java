@@ -0,0 +1,89 @@
+package by.osinovi.paymentservice.service.impl;
+
+import by.osinovi.paymentservice.entity.OutboxEvent;
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.repository.OutboxEventRepository;
+import by.osinovi.paymentservice.util.PaymentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentOutboxTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Captor
+    private ArgumentCaptor<List<OutboxEvent>> eventsCaptor;
+
+    private PaymentOutbox paymentOutbox;
+
+    @BeforeEach
+    void setUp() {
+        paymentOutbox = new PaymentOutbox(outboxEventRepository, TransactionOperations.withoutTransaction());
+        ReflectionTestUtils.setField(paymentOutbox, "enabled", true);
+    }
+
+    @Test
+    void write_ShouldStoreOutboxEventPerWrittenPayment_WhenEnabled() {
+        Payment first = payment(123L);
+        Payment second = payment(124L);
+
+        List<Payment> result = paymentOutbox.write(() -> List.of(first, second), Function.identity());
+
+        assertEquals(List.of(first, second), result);
+        verify(outboxEventRepository).insert(eventsCaptor.capture());
+        List<OutboxEvent> events = eventsCaptor.getValue();
+        assertEquals(2, events.size());
+        assertEquals(first.getId(), events.get(0).getId());
+        assertEquals(second.getOrderId(), events.get(1).getPayment().getOrderId());
+        assertEquals(second.getPayment_amount(), events.get(1).getPayment().getPaymentAmount());
+    }
+
+    @Test
+    void write_ShouldNotStoreOutboxEvent_WhenPaymentWriteFails() {
+        assertThrows(DuplicateKeyException.class, () -> paymentOutbox.<Payment>write(() -> {
+            throw new DuplicateKeyException("order_id_unique");
+        }, List::of));
+
+        verify(outboxEventRepository, never()).insert(anyList());
+    }
+
+    @Test
+    void write_ShouldOnlyWritePayment_WhenDisabled() {
+        ReflectionTestUtils.setField(paymentOutbox, "enabled", false);
+        Payment payment = payment(123L);
+
+        Payment result = paymentOutbox.write(() -> payment, List::of);
+
+        assertSame(payment, result);
+        verifyNoInteractions(outboxEventRepository);
+    }
+
+    private Payment payment(Long orderId) {
+        return new Payment(UUID.randomUUID(), orderId, 456L, PaymentStatus.SUCCESS, LocalDateTime.now(),
+                new BigDecimal("100.50"));
+    }
+}
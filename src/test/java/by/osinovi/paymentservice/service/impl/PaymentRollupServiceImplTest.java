@@ -0,0 +1,226 @@
+package by.osinovi.paymentservice.service.impl;
+
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.entity.PaymentRollup;
+import by.osinovi.paymentservice.repository.PaymentRepository;
+import by.osinovi.paymentservice.repository.PaymentRollupRepository;
+import by.osinovi.paymentservice.repository.RollupBucketRange;
+import by.osinovi.paymentservice.util.PaymentStatus;
+import by.osinovi.paymentservice.util.RollupGranularity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentRollupServiceImplTest {
+
+    private static final LocalDateTime PAYMENT_TIME = LocalDateTime.of(2024, 1, 15, 12, 30, 45);
+
+    @Mock
+    private PaymentRollupRepository paymentRollupRepository;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @InjectMocks
+    private PaymentRollupServiceImpl paymentRollupService;
+
+    @Captor
+    private ArgumentCaptor<Collection<PaymentRollup>> incrementsCaptor;
+
+    @Captor
+    private ArgumentCaptor<String> flushIdCaptor;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(paymentRollupService, "enabled", true);
+    }
+
+    @Test
+    void flush_ShouldIncrementEveryGranularityOnce_WhenPaymentsShareBuckets() {
+        paymentRollupService.record(payment(PAYMENT_TIME, "100.50"));
+        paymentRollupService.record(payment(PAYMENT_TIME.plusSeconds(5), "20.25"));
+
+        paymentRollupService.flush();
+
+        verify(paymentRollupRepository).incrementAll(anyString(), incrementsCaptor.capture());
+        List<PaymentRollup> increments = incrementsCaptor.getValue().stream()
+                .sorted(Comparator.comparing(PaymentRollup::getGranularity))
+                .toList();
+        assertEquals(3, increments.size());
+        assertEquals(LocalDateTime.of(2024, 1, 15, 0, 0), increments.get(0).getBucketStart());
+        assertEquals(LocalDateTime.of(2024, 1, 15, 12, 0), increments.get(1).getBucketStart());
+        assertEquals(LocalDateTime.of(2024, 1, 15, 12, 30), increments.get(2).getBucketStart());
+        assertEquals(2, increments.get(2).getCount());
+        assertEquals(new BigDecimal("120.75"), increments.get(2).getTotal());
+        assertEquals(PaymentStatus.SUCCESS, increments.get(2).getStatus());
+    }
+
+    @Test
+    void flush_ShouldRetrySameFlushId_WhenRepositoryFails() {
+        paymentRollupService.record(payment(PAYMENT_TIME, "100.50"));
+        doThrow(new DataAccessResourceFailureException("mongo down"))
+                .doNothing()
+                .when(paymentRollupRepository).incrementAll(anyString(), anyCollection());
+
+        paymentRollupService.flush();
+        paymentRollupService.flush();
+
+        verify(paymentRollupRepository, times(2)).incrementAll(flushIdCaptor.capture(), incrementsCaptor.capture());
+        assertEquals(flushIdCaptor.getAllValues().get(0), flushIdCaptor.getAllValues().get(1));
+        assertEquals(3, incrementsCaptor.getAllValues().get(1).size());
+    }
+
+    @Test
+    void flush_ShouldNotMergeUnconfirmedIncrementsIntoNewFlush_WhenRetryFails() {
+        paymentRollupService.record(payment(PAYMENT_TIME, "100.50"));
+        doThrow(new DataAccessResourceFailureException("mongo down"))
+                .doThrow(new DataAccessResourceFailureException("mongo down"))
+                .doNothing()
+                .when(paymentRollupRepository).incrementAll(anyString(), anyCollection());
+
+        paymentRollupService.flush();
+        paymentRollupService.record(payment(PAYMENT_TIME, "20.25"));
+        paymentRollupService.flush();
+        paymentRollupService.flush();
+
+        verify(paymentRollupRepository, times(4)).incrementAll(flushIdCaptor.capture(), incrementsCaptor.capture());
+        List<String> flushIds = flushIdCaptor.getAllValues();
+        assertEquals(flushIds.get(0), flushIds.get(1));
+        assertEquals(flushIds.get(0), flushIds.get(2));
+        assertNotEquals(flushIds.get(0), flushIds.get(3));
+        assertEquals(new BigDecimal("100.50"), incrementsCaptor.getAllValues().get(2).iterator().next().getTotal());
+        assertEquals(new BigDecimal("20.25"), incrementsCaptor.getAllValues().get(3).iterator().next().getTotal());
+    }
+
+    @Test
+    void sumPaymentAmount_ShouldSumBucketsAndOnlyRawEdges_WhenRangeIsCoveredByRollups() {
+        when(paymentRollupRepository.findFirstByGranularityOrderByBucketStartAsc(RollupGranularity.DAY))
+                .thenReturn(Optional.of(rollup(RollupGranularity.DAY, LocalDateTime.of(2023, 12, 31, 0, 0))));
+        when(paymentRollupRepository.sumTotalByBucketRanges(anyCollection()))
+                .thenReturn(Optional.of(new BigDecimal("1000.00")));
+        when(paymentRepository.sumPaymentAmountByDateRange(LocalDateTime.of(2024, 1, 2, 10, 15, 30),
+                LocalDateTime.of(2024, 1, 2, 10, 15, 59, 999_000_000)))
+                .thenReturn(Optional.of(new BigDecimal("1.50")));
+        when(paymentRepository.sumPaymentAmountByDateRange(LocalDateTime.of(2024, 1, 5, 8, 0),
+                LocalDateTime.of(2024, 1, 5, 8, 0)))
+                .thenReturn(Optional.of(new BigDecimal("2.25")));
+
+        BigDecimal result = paymentRollupService.sumPaymentAmount(LocalDateTime.of(2024, 1, 2, 10, 15, 30),
+                LocalDateTime.of(2024, 1, 5, 8, 0));
+
+        assertEquals(new BigDecimal("1003.75"), result);
+        verify(paymentRollupRepository).sumTotalByBucketRanges(List.of(
+                new RollupBucketRange(RollupGranularity.DAY,
+                        LocalDateTime.of(2024, 1, 3, 0, 0), LocalDateTime.of(2024, 1, 5, 0, 0)),
+                new RollupBucketRange(RollupGranularity.HOUR,
+                        LocalDateTime.of(2024, 1, 2, 11, 0), LocalDateTime.of(2024, 1, 3, 0, 0)),
+                new RollupBucketRange(RollupGranularity.MINUTE,
+                        LocalDateTime.of(2024, 1, 2, 10, 16), LocalDateTime.of(2024, 1, 2, 11, 0)),
+                new RollupBucketRange(RollupGranularity.HOUR,
+                        LocalDateTime.of(2024, 1, 5, 0, 0), LocalDateTime.of(2024, 1, 5, 8, 0))));
+        verify(paymentRepository, times(2)).sumPaymentAmountByDateRange(any(LocalDateTime.class),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    void sumPaymentAmount_ShouldExcludeDeletedPayment_WhenPaymentIsRemovedAfterFlush() {
+        Map<String, PaymentRollup> rollups = new HashMap<>();
+        doAnswer(invocation -> {
+            Collection<PaymentRollup> increments = invocation.getArgument(1);
+            increments.forEach(increment -> rollups.merge(increment.getId(), increment, (current, next) ->
+                    new PaymentRollup(current.getId(), current.getGranularity(), current.getBucketStart(),
+                            current.getStatus(), current.getCount() + next.getCount(),
+                            current.getTotal().add(next.getTotal()))));
+            return null;
+        }).when(paymentRollupRepository).incrementAll(anyString(), anyCollection());
+        when(paymentRollupRepository.findFirstByGranularityOrderByBucketStartAsc(RollupGranularity.DAY))
+                .thenReturn(Optional.of(rollup(RollupGranularity.DAY, LocalDateTime.of(2024, 1, 14, 0, 0))));
+        when(paymentRollupRepository.sumTotalByBucketRanges(anyCollection())).thenAnswer(invocation -> {
+            Collection<RollupBucketRange> ranges = invocation.getArgument(0);
+            return rollups.values().stream()
+                    .filter(rollup -> ranges.stream().anyMatch(range -> range.granularity() == rollup.getGranularity()
+                            && !rollup.getBucketStart().isBefore(range.from())
+                            && rollup.getBucketStart().isBefore(range.to())))
+                    .map(PaymentRollup::getTotal)
+                    .reduce(BigDecimal::add);
+        });
+        Payment kept = payment(PAYMENT_TIME, "100.50");
+        Payment deleted = payment(PAYMENT_TIME.plusMinutes(5), "20.25");
+        paymentRollupService.record(kept);
+        paymentRollupService.record(deleted);
+        paymentRollupService.flush();
+
+        paymentRollupService.remove(deleted);
+        BigDecimal result = paymentRollupService.sumPaymentAmount(LocalDateTime.of(2024, 1, 15, 0, 0),
+                LocalDateTime.of(2024, 1, 16, 0, 0).minusNanos(1_000_000));
+
+        assertEquals(new BigDecimal("100.50"), result);
+        assertEquals(1, rollups.get("DAY:SUCCESS:2024-01-15T00:00").getCount());
+    }
+
+    @Test
+    void sumPaymentAmount_ShouldAggregateRawPayments_WhenNoRollupsExist() {
+        LocalDateTime startDate = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime endDate = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+        when(paymentRepository.sumPaymentAmountByDateRange(startDate, endDate)).thenReturn(Optional.empty());
+
+        BigDecimal result = paymentRollupService.sumPaymentAmount(startDate, endDate);
+
+        assertEquals(BigDecimal.ZERO, result);
+        verify(paymentRollupRepository).sumTotalByBucketRanges(List.of());
+    }
+
+    @Test
+    void sumPaymentAmount_ShouldBypassRollups_WhenDisabled() {
+        ReflectionTestUtils.setField(paymentRollupService, "enabled", false);
+        LocalDateTime startDate = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime endDate = LocalDateTime.of(2024, 1, 31, 23, 59, 59);
+        when(paymentRepository.sumPaymentAmountByDateRange(startDate, endDate))
+                .thenReturn(Optional.of(new BigDecimal("1500.75")));
+
+        paymentRollupService.record(payment(PAYMENT_TIME, "100.50"));
+        BigDecimal result = paymentRollupService.sumPaymentAmount(startDate, endDate);
+
+        assertEquals(new BigDecimal("1500.75"), result);
+        verify(paymentRollupRepository, never()).incrementAll(anyString(), anyCollection());
+        verify(paymentRollupRepository, never()).sumTotalByBucketRanges(anyCollection());
+    }
+
+    private Payment payment(LocalDateTime timestamp, String amount) {
+        return new Payment(UUID.randomUUID(), 123L, 456L, PaymentStatus.SUCCESS, timestamp, new BigDecimal(amount));
+    }
+
+    private PaymentRollup rollup(RollupGranularity granularity, LocalDateTime bucketStart) {
+        return new PaymentRollup("id", granularity, bucketStart, PaymentStatus.SUCCESS, 1, BigDecimal.ONE);
+    }
+}
@@ -1,27 +1,48 @@
 package by.osinovi.paymentservice.service.impl;
 
+import by.osinovi.paymentservice.cache.PaymentLookupCache;
+import by.osinovi.paymentservice.cache.RecentOrderCache;
 import by.osinovi.paymentservice.dto.OrderMessage;
 import by.osinovi.paymentservice.entity.Payment;
 import by.osinovi.paymentservice.repository.PaymentRepository;
 import by.osinovi.paymentservice.service.ExternalAPIService;
+import by.osinovi.paymentservice.service.PaymentRollupService;
 import by.osinovi.paymentservice.util.PaymentStatus;
+import by.osinovi.paymentservice.util.TimeOrderedUuidGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -35,6 +56,27 @@ class PaymentServiceImplTest {
     @Mock
     private ExternalAPIService externalAPIService;
 
+    @Mock
+    private RecentOrderCache recentOrderCache;
+
+    @Mock
+    private PaymentLookupCache paymentLookupCache;
+
+    @Mock
+    private PaymentRollupService paymentRollupService;
+
+    @Mock
+    private PaymentOutbox paymentOutbox;
+
+    @Mock
+    private PaymentWriteBehindBuffer paymentWriteBehindBuffer;
+
+    @Mock
+    private ObjectProvider<PaymentWriteBehindBuffer> paymentWriteBehindBufferProvider;
+
+    @Spy
+    private TimeOrderedUuidGenerator paymentIdGenerator = new TimeOrderedUuidGenerator(Clock.systemUTC());
+
     @InjectMocks
     private PaymentServiceImpl paymentService;
 
@@ -43,6 +85,10 @@ class PaymentServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(paymentService, "statusConcurrency", 4);
+        lenient().when(paymentOutbox.write(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+
         orderMessage = new OrderMessage();
         orderMessage.setOrderId(123L);
         orderMessage.setUserId(456L);
@@ -73,6 +119,64 @@ class PaymentServiceImplTest {
 
         verify(externalAPIService, times(1)).getStatus();
         verify(paymentRepository, times(1)).save(any(Payment.class));
+        verify(paymentRollupService, times(1)).record(expectedPayment);
+        verify(paymentLookupCache, times(1)).put(expectedPayment);
+    }
+
+    @Test
+    void getPaymentsByOrderId_ShouldReadThroughLookupCache() {
+        when(paymentLookupCache.getByOrderId(eq(123L), any())).thenAnswer(
+                invocation -> invocation.<Function<Long, List<Payment>>>getArgument(1).apply(123L));
+        when(paymentRepository.findByOrderId(123L)).thenReturn(List.of(expectedPayment));
+
+        assertEquals(List.of(expectedPayment), paymentService.getPaymentsByOrderId(123L));
+    }
+
+    @Test
+    void getPaymentsByUserId_ShouldLoadLookupCacheFromPrimaryFinder() {
+        when(paymentLookupCache.getByUserId(eq(456L), any())).thenAnswer(
+                invocation -> invocation.<Function<Long, List<Payment>>>getArgument(1).apply(456L));
+        when(paymentRepository.findAllByUserId(456L)).thenReturn(List.of(expectedPayment));
+
+        assertEquals(List.of(expectedPayment), paymentService.getPaymentsByUserId(456L));
+        verify(paymentRepository, never()).findByUserId(456L);
+    }
+
+    @Test
+    void deletePayment_ShouldEvictCachedLookupsAndSubtractFromRollups_WhenPaymentExists() {
+        when(paymentRepository.findById(expectedPayment.getId())).thenReturn(Optional.of(expectedPayment));
+        when(paymentRepository.removeById(expectedPayment.getId())).thenReturn(1L);
+
+        paymentService.deletePayment(expectedPayment.getId());
+
+        verify(paymentRepository).removeById(expectedPayment.getId());
+        verify(paymentRollupService).remove(expectedPayment);
+        verify(paymentLookupCache).evict(expectedPayment);
+        verify(recentOrderCache).evict(123L);
+    }
+
+    @Test
+    void deletePayment_ShouldNotSubtractFromRollups_WhenPaymentWasAlreadyRemoved() {
+        when(paymentRepository.findById(expectedPayment.getId())).thenReturn(Optional.of(expectedPayment));
+        when(paymentRepository.removeById(expectedPayment.getId())).thenReturn(0L);
+
+        paymentService.deletePayment(expectedPayment.getId());
+
+        verify(paymentRollupService, never()).remove(any(Payment.class));
+        verify(paymentLookupCache).evict(expectedPayment);
+    }
+
+    @Test
+    void createPaymentWriteBehind_ShouldSubmitPaymentToBuffer_AndRememberItOncePersisted() {
+        when(externalAPIService.getStatus()).thenReturn(PaymentStatus.SUCCESS);
+        when(paymentWriteBehindBufferProvider.getObject()).thenReturn(paymentWriteBehindBuffer);
+        when(paymentWriteBehindBuffer.submit(any(Payment.class))).thenReturn(CompletableFuture.completedFuture(expectedPayment));
+
+        Payment result = paymentService.createPaymentWriteBehind(orderMessage).join();
+
+        assertSame(expectedPayment, result);
+        verify(recentOrderCache).put(expectedPayment);
+        verify(paymentRepository, never()).save(any(Payment.class));
     }
 
     @Test
@@ -128,32 +232,148 @@ class PaymentServiceImplTest {
     }
 
     @Test
-    void getTotalAmountByDateRange_ShouldReturnCorrectSum_WhenValidDateRange() {
-        String startDate = "2024-01-01T00:00:00";
-        String endDate = "2024-01-31T23:59:59";
-        Double expectedSum = 1500.75;
-        when(paymentRepository.sumPaymentAmountByDateRange(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(java.util.Optional.of(expectedSum));
+    void createPayment_ShouldReturnCachedPayment_WhenOrderWasRecentlyProcessed() {
+        when(recentOrderCache.get(123L)).thenReturn(Optional.of(expectedPayment));
 
-        Double result = paymentService.getTotalAmountByDateRange(startDate, endDate);
+        Payment result = paymentService.createPayment(orderMessage);
 
-        assertEquals(expectedSum, result);
-        verify(paymentRepository, times(1)).sumPaymentAmountByDateRange(
-                LocalDateTime.parse(startDate), LocalDateTime.parse(endDate));
+        assertSame(expectedPayment, result);
+        verify(paymentRepository, never()).findFirstByOrderId(any());
+        verify(externalAPIService, never()).getStatus();
+        verify(paymentRepository, never()).save(any(Payment.class));
+    }
+
+    @Test
+    void createPayment_ShouldReturnStoredPayment_WhenOrderAlreadyExistsInRepository() {
+        when(paymentRepository.findFirstByOrderId(123L)).thenReturn(Optional.of(expectedPayment));
+
+        Payment result = paymentService.createPayment(orderMessage);
+
+        assertSame(expectedPayment, result);
+        verify(recentOrderCache, times(1)).put(expectedPayment);
+        verify(paymentRollupService, never()).record(any(Payment.class));
+        verify(externalAPIService, never()).getStatus();
+        verify(paymentRepository, never()).save(any(Payment.class));
+    }
+
+    @Test
+    void createPayment_ShouldReturnExistingPayment_WhenConcurrentInsertViolatesUniqueOrderId() {
+        when(paymentRepository.findFirstByOrderId(123L)).thenReturn(Optional.empty(), Optional.of(expectedPayment));
+        when(externalAPIService.getStatus()).thenReturn(PaymentStatus.FAILED);
+        when(paymentRepository.save(any(Payment.class))).thenThrow(new DuplicateKeyException("order_id_unique"));
+
+        Payment result = paymentService.createPayment(orderMessage);
+
+        assertSame(expectedPayment, result);
+        verify(recentOrderCache, times(1)).put(expectedPayment);
+        verify(paymentRollupService, never()).record(any(Payment.class));
+    }
+
+    @Test
+    void createPayment_ShouldNotLookUpExistingPayment_WhenDuplicateKeyHasNoOrderId() {
+        orderMessage.setOrderId(null);
+        DuplicateKeyException duplicateKey = new DuplicateKeyException("_id_");
+        when(externalAPIService.getStatus()).thenReturn(PaymentStatus.FAILED);
+        when(paymentRepository.save(any(Payment.class))).thenThrow(duplicateKey);
+
+        DuplicateKeyException exception = assertThrows(DuplicateKeyException.class,
+                () -> paymentService.createPayment(orderMessage));
+
+        assertSame(duplicateKey, exception);
+        verify(paymentRepository, never()).findFirstByOrderId(any());
+    }
+
+    @Test
+    void createPayments_ShouldSkipDuplicateOrders_WhenOrdersAreRepeatedOrAlreadyStored() {
+        OrderMessage storedOrderMessage = new OrderMessage(124L, 456L, new BigDecimal("20.00"));
+        Payment storedPayment = new Payment(UUID.randomUUID(), 124L, 456L, PaymentStatus.FAILED,
+                LocalDateTime.now(), new BigDecimal("20.00"));
+        when(paymentRepository.findByOrderIdIn(List.of(123L, 124L))).thenReturn(List.of(storedPayment));
+        when(externalAPIService.getStatusAsync()).thenReturn(Mono.just(PaymentStatus.SUCCESS));
+        when(paymentRepository.insert(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Payment> result = paymentService.createPayments(List.of(orderMessage, storedOrderMessage, orderMessage));
+
+        assertEquals(2, result.size());
+        assertEquals(123L, result.get(0).getOrderId());
+        assertEquals(PaymentStatus.SUCCESS, result.get(0).getStatus());
+        assertSame(storedPayment, result.get(1));
+        verify(externalAPIService, times(1)).getStatusAsync();
+        verify(paymentRepository, times(1)).insert(List.of(result.get(0)));
     }
 
     @Test
-    void getTotalAmountByDateRange_ShouldReturnZero_WhenNoPaymentsFound() {
+    void createPayments_ShouldInsertAllPaymentsInSingleBulkWrite_WhenValidOrderMessages() {
+        OrderMessage secondOrderMessage = new OrderMessage(124L, 789L, new BigDecimal("20.00"));
+        when(externalAPIService.getStatusAsync())
+                .thenReturn(Mono.just(PaymentStatus.SUCCESS), Mono.just(PaymentStatus.FAILED));
+        when(paymentRepository.insert(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Payment> result = paymentService.createPayments(List.of(orderMessage, secondOrderMessage));
+
+        assertEquals(2, result.size());
+        assertEquals(123L, result.get(0).getOrderId());
+        assertEquals(PaymentStatus.SUCCESS, result.get(0).getStatus());
+        assertEquals(124L, result.get(1).getOrderId());
+        assertEquals(PaymentStatus.FAILED, result.get(1).getStatus());
+        assertNotEquals(result.get(0).getId(), result.get(1).getId());
+        verify(externalAPIService, times(2)).getStatusAsync();
+        verify(externalAPIService, never()).getStatus();
+        verify(paymentRepository, times(1)).insert(anyList());
+        verify(paymentRepository, never()).save(any(Payment.class));
+        verify(paymentRollupService, times(2)).record(any(Payment.class));
+    }
+
+    @Test
+    void createPayments_ShouldPreserveOrderMessageOrder_WhenStatusesCompleteOutOfOrder() {
+        OrderMessage secondOrderMessage = new OrderMessage(124L, 789L, new BigDecimal("20.00"));
+        when(externalAPIService.getStatusAsync()).thenReturn(
+                Mono.just(PaymentStatus.SUCCESS).delayElement(Duration.ofMillis(100)),
+                Mono.just(PaymentStatus.FAILED));
+        when(paymentRepository.insert(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Payment> result = paymentService.createPayments(List.of(orderMessage, secondOrderMessage));
+
+        assertEquals(123L, result.get(0).getOrderId());
+        assertEquals(PaymentStatus.SUCCESS, result.get(0).getStatus());
+        assertEquals(124L, result.get(1).getOrderId());
+        assertEquals(PaymentStatus.FAILED, result.get(1).getStatus());
+    }
+
+    @Test
+    void createPayments_ShouldPropagateException_WhenStatusResolutionFails() {
+        when(externalAPIService.getStatusAsync()).thenReturn(Mono.error(new RuntimeException("Failed to call random API")));
+
+        assertThrows(RuntimeException.class, () -> paymentService.createPayments(List.of(orderMessage)));
+        verify(paymentRepository, never()).insert(anyList());
+    }
+
+    @Test
+    void createPayments_ShouldReturnEmptyList_WhenNoOrderMessages() {
+        List<Payment> result = paymentService.createPayments(List.of());
+
+        assertTrue(result.isEmpty());
+        verify(paymentRepository, never()).insert(anyList());
+    }
+
+    @Test
+    void createPayments_ShouldThrowException_WhenOrderMessagesIsNull() {
+        assertThrows(IllegalArgumentException.class, () -> paymentService.createPayments(null));
+    }
+
+    @Test
+    void getTotalAmountByDateRange_ShouldReturnRollupSum_WhenValidDateRange() {
         String startDate = "2024-01-01T00:00:00";
         String endDate = "2024-01-31T23:59:59";
-        when(paymentRepository.sumPaymentAmountByDateRange(any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(java.util.Optional.empty());
+        BigDecimal expectedSum = new BigDecimal("1500.75");
+        when(paymentRollupService.sumPaymentAmount(LocalDateTime.parse(startDate), LocalDateTime.parse(endDate)))
+                .thenReturn(expectedSum);
 
-        Double result = paymentService.getTotalAmountByDateRange(startDate, endDate);
+        BigDecimal result = paymentService.getTotalAmountByDateRange(startDate, endDate);
 
-        assertEquals(0.0, result);
-        verify(paymentRepository, times(1)).sumPaymentAmountByDateRange(
-                LocalDateTime.parse(startDate), LocalDateTime.parse(endDate));
+        assertEquals(expectedSum, result);
+        verify(paymentRepository, never()).sumPaymentAmountByDateRange(any(LocalDateTime.class),
+                any(LocalDateTime.class));
     }
 
     @Test
@@ -0,0 +1,141 @@
+package by.osinovi.paymentservice.service.impl;
+
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.repository.PaymentRepository;
+import by.osinovi.paymentservice.service.PaymentRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentWriteBehindBufferTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentRollupService paymentRollupService;
+
+    @InjectMocks
+    private PaymentWriteBehindBuffer paymentWriteBehindBuffer;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(paymentWriteBehindBuffer, "batchSize", 2);
+        ReflectionTestUtils.setField(paymentWriteBehindBuffer, "maxPending", 3);
+        ReflectionTestUtils.setField(paymentWriteBehindBuffer, "retryBackoff", Duration.ZERO);
+    }
+
+    @Test
+    void submit_ShouldFlushBatchInOneBulkInsert_WhenBatchSizeIsReached() {
+        Payment first = payment(1L);
+        Payment second = payment(2L);
+        when(paymentRepository.insertAllUnordered(List.of(first, second))).thenReturn(List.of());
+
+        CompletableFuture<Payment> firstPersisted = paymentWriteBehindBuffer.submit(first);
+        assertFalse(firstPersisted.isDone());
+        CompletableFuture<Payment> secondPersisted = paymentWriteBehindBuffer.submit(second);
+
+        assertSame(first, firstPersisted.join());
+        assertSame(second, secondPersisted.join());
+        verify(paymentRollupService).record(first);
+        verify(paymentRollupService).record(second);
+    }
+
+    @Test
+    void flush_ShouldCompleteWithExistingPayment_WhenInsertIsRejectedAsDuplicate() {
+        Payment duplicate = payment(1L);
+        Payment existing = payment(1L);
+        when(paymentRepository.insertAllUnordered(List.of(duplicate))).thenReturn(List.of(duplicate));
+        when(paymentRepository.findFirstByOrderId(1L)).thenReturn(Optional.of(existing));
+
+        CompletableFuture<Payment> persisted = paymentWriteBehindBuffer.submit(duplicate);
+        paymentWriteBehindBuffer.flush();
+
+        assertSame(existing, persisted.join());
+        verify(paymentRollupService, never()).record(duplicate);
+    }
+
+    @Test
+    void flush_ShouldKeepPaymentsBuffered_WhenBulkInsertFails() {
+        Payment payment = payment(1L);
+        when(paymentRepository.insertAllUnordered(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("mongo down"))
+                .thenReturn(List.of());
+
+        CompletableFuture<Payment> persisted = paymentWriteBehindBuffer.submit(payment);
+        paymentWriteBehindBuffer.flush();
+        assertFalse(persisted.isDone());
+        paymentWriteBehindBuffer.flush();
+
+        assertSame(payment, persisted.join());
+        verify(paymentRepository, times(2)).insertAllUnordered(List.of(payment));
+    }
+
+    @Test
+    void flush_ShouldWaitForRetryBackoff_WhenBulkInsertFails() {
+        ReflectionTestUtils.setField(paymentWriteBehindBuffer, "retryBackoff", Duration.ofHours(1));
+        Payment payment = payment(1L);
+        when(paymentRepository.insertAllUnordered(anyList())).thenThrow(new DataAccessResourceFailureException("mongo down"));
+
+        CompletableFuture<Payment> persisted = paymentWriteBehindBuffer.submit(payment);
+        paymentWriteBehindBuffer.flush();
+        paymentWriteBehindBuffer.flush();
+
+        assertFalse(persisted.isDone());
+        verify(paymentRepository, times(1)).insertAllUnordered(List.of(payment));
+    }
+
+    @Test
+    void flush_ShouldRetryInsert_WhenDuplicatePaymentCannotBeLookedUp() {
+        Payment duplicate = payment(1L);
+        when(paymentRepository.insertAllUnordered(List.of(duplicate))).thenReturn(List.of(duplicate), List.of());
+        when(paymentRepository.findFirstByOrderId(1L)).thenReturn(Optional.empty());
+
+        CompletableFuture<Payment> persisted = paymentWriteBehindBuffer.submit(duplicate);
+        paymentWriteBehindBuffer.flush();
+        assertFalse(persisted.isDone());
+        paymentWriteBehindBuffer.flush();
+
+        assertSame(duplicate, persisted.join());
+        verify(paymentRollupService).record(duplicate);
+    }
+
+    @Test
+    void submit_ShouldRejectPayment_WhenBufferStaysFull() {
+        when(paymentRepository.insertAllUnordered(anyList())).thenThrow(new DataAccessResourceFailureException("mongo down"));
+        ReflectionTestUtils.setField(paymentWriteBehindBuffer, "batchSize", 10);
+        paymentWriteBehindBuffer.submit(payment(1L));
+        paymentWriteBehindBuffer.submit(payment(2L));
+        paymentWriteBehindBuffer.submit(payment(3L));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> paymentWriteBehindBuffer.submit(payment(4L)));
+    }
+
+    private static Payment payment(Long orderId) {
+        Payment payment = new Payment();
+        payment.setId(UUID.randomUUID());
+        payment.setOrderId(orderId);
+        return payment;
+    }
+}
@@ -0,0 +1,115 @@
+package by.osinovi.paymentservice.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class RandomNumberPoolTest {
+
+    private static final String BASE_URL = "http://random.test";
+
+    private MockRestServiceServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private RandomNumberPool randomNumberPool;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder().baseUrl(BASE_URL);
+        server = MockRestServiceServer.bindTo(builder).build();
+        meterRegistry = new SimpleMeterRegistry();
+        randomNumberPool = new RandomNumberPool(builder.build(), meterRegistry);
+
+        ReflectionTestUtils.setField(randomNumberPool, "enabled", true);
+        ReflectionTestUtils.setField(randomNumberPool, "blockSize", 3);
+        ReflectionTestUtils.setField(randomNumberPool, "lowWatermark", 1);
+        ReflectionTestUtils.setField(randomNumberPool, "highWatermark", 5);
+        ReflectionTestUtils.setField(randomNumberPool, "retryBackoffMs", 60_000L);
+    }
+
+    @Test
+    void refill_ShouldFetchBlocksUntilHighWatermark() {
+        server.expect(requestTo(uriFor(3))).andRespond(withSuccess("10\n11\n12\n", MediaType.TEXT_PLAIN));
+        server.expect(requestTo(uriFor(2))).andRespond(withSuccess("13\n14\n", MediaType.TEXT_PLAIN));
+
+        randomNumberPool.refill();
+
+        server.verify();
+        assertEquals(5, randomNumberPool.size());
+        assertEquals(2.0, meterRegistry.get("random.pool.refills").counter().count());
+    }
+
+    @Test
+    void poll_ShouldReturnBufferedNumbersInFetchOrder() {
+        server.expect(requestTo(uriFor(3))).andRespond(withSuccess("10\n11\n12\n", MediaType.TEXT_PLAIN));
+        server.expect(requestTo(uriFor(2))).andRespond(withSuccess("13\n14\n", MediaType.TEXT_PLAIN));
+        randomNumberPool.refill();
+
+        assertEquals(OptionalInt.of(10), randomNumberPool.poll());
+        assertEquals(OptionalInt.of(11), randomNumberPool.poll());
+        assertEquals(3, randomNumberPool.size());
+    }
+
+    @Test
+    void poll_ShouldCountMiss_WhenPoolIsEmpty() {
+        ReflectionTestUtils.setField(randomNumberPool, "nextRefillAttempt",
+                new AtomicLong(Long.MAX_VALUE));
+
+        OptionalInt result = randomNumberPool.poll();
+
+        assertFalse(result.isPresent());
+        assertEquals(1.0, meterRegistry.get("random.pool.misses").counter().count());
+    }
+
+    @Test
+    void poll_ShouldReturnEmpty_WhenPoolIsDisabled() {
+        ReflectionTestUtils.setField(randomNumberPool, "enabled", false);
+
+        OptionalInt result = randomNumberPool.poll();
+
+        assertFalse(result.isPresent());
+        assertEquals(0.0, meterRegistry.get("random.pool.misses").counter().count());
+    }
+
+    @Test
+    void refill_ShouldSkipInvalidNumbers() {
+        server.expect(requestTo(uriFor(3))).andRespond(withSuccess("10\n-4\nabc\n", MediaType.TEXT_PLAIN));
+        server.expect(requestTo(uriFor(3))).andRespond(withSuccess("", MediaType.TEXT_PLAIN));
+
+        randomNumberPool.refill();
+
+        assertEquals(1, randomNumberPool.size());
+        assertEquals(OptionalInt.of(10), randomNumberPool.poll());
+    }
+
+    @Test
+    void refill_ShouldBackOff_WhenApiFails() {
+        server.expect(requestTo(uriFor(3))).andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        randomNumberPool.refill();
+
+        server.verify();
+        assertEquals(0, randomNumberPool.size());
+        long nextRefillAttempt = ((AtomicLong)
+                ReflectionTestUtils.getField(randomNumberPool, "nextRefillAttempt")).get();
+        assertTrue(nextRefillAttempt > System.currentTimeMillis());
+    }
+
+    private String uriFor(int count) {
+        return BASE_URL + "/integers/?num=" + count + "&min=1&max=100&col=1&base=10&format=plain&rnd=new";
+    }
+}
@@ -0,0 +1,119 @@
+package by.osinovi.paymentservice.service.impl;
+
+import by.osinovi.paymentservice.cache.PaymentLookupCache;
+import by.osinovi.paymentservice.cache.RecentOrderCache;
+import by.osinovi.paymentservice.dto.OrderMessage;
+import by.osinovi.paymentservice.entity.Payment;
+import by.osinovi.paymentservice.repository.ReactivePaymentRepository;
+import by.osinovi.paymentservice.service.ExternalAPIService;
+import by.osinovi.paymentservice.service.PaymentRollupService;
+import by.osinovi.paymentservice.util.PaymentStatus;
+import by.osinovi.paymentservice.util.TimeOrderedUuidGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactivePaymentServiceImplTest {
+
+    @Mock
+    private ReactivePaymentRepository reactivePaymentRepository;
+
+    @Mock
+    private ExternalAPIService externalAPIService;
+
+    @Mock
+    private RecentOrderCache recentOrderCache;
+
+    @Mock
+    private PaymentLookupCache paymentLookupCache;
+
+    @Mock
+    private PaymentRollupService paymentRollupService;
+
+    @Spy
+    private TimeOrderedUuidGenerator paymentIdGenerator = new TimeOrderedUuidGenerator(Clock.systemUTC());
+
+    @InjectMocks
+    private ReactivePaymentServiceImpl reactivePaymentService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reactivePaymentService, "statusConcurrency", 4);
+    }
+
+    @Test
+    void createPayments_ShouldInsertNewPayments_AndReuseExistingOnes() {
+        Payment existingPayment = payment(1L);
+        when(recentOrderCache.get(any())).thenReturn(Optional.empty());
+        when(reactivePaymentRepository.findByOrderIdIn(List.of(1L, 2L))).thenReturn(Flux.just(existingPayment));
+        when(externalAPIService.getStatusAsync()).thenReturn(Mono.just(PaymentStatus.SUCCESS));
+        when(reactivePaymentRepository.insert(anyList())).thenAnswer(invocation -> Flux.fromIterable(invocation.getArgument(0)));
+
+        StepVerifier.create(reactivePaymentService.createPayments(List.of(order(1L), order(2L), order(2L))))
+                .expectNext(existingPayment)
+                .expectNextMatches(payment -> payment.getOrderId() == 2L && payment.getStatus() == PaymentStatus.SUCCESS)
+                .verifyComplete();
+        verify(paymentRollupService).record(any(Payment.class));
+    }
+
+    @Test
+    void createPayments_ShouldFallBackToExistingPayment_WhenInsertHitsDuplicateKey() {
+        Payment concurrentPayment = payment(2L);
+        when(recentOrderCache.get(2L)).thenReturn(Optional.empty());
+        when(reactivePaymentRepository.findByOrderIdIn(List.of(2L))).thenReturn(Flux.empty());
+        when(externalAPIService.getStatusAsync()).thenReturn(Mono.just(PaymentStatus.FAILED));
+        when(reactivePaymentRepository.insert(anyList())).thenReturn(Flux.error(new DuplicateKeyException("dup")));
+        when(reactivePaymentRepository.save(any(Payment.class))).thenReturn(Mono.error(new DuplicateKeyException("dup")));
+        when(reactivePaymentRepository.findFirstByOrderId(2L)).thenReturn(Mono.just(concurrentPayment));
+
+        StepVerifier.create(reactivePaymentService.createPayments(List.of(order(2L))))
+                .expectNext(concurrentPayment)
+                .verifyComplete();
+        verify(paymentRollupService, never()).record(any(Payment.class));
+    }
+
+    @Test
+    void createPayments_ShouldFail_WhenOrderMessageIsNull() {
+        StepVerifier.create(reactivePaymentService.createPayments(null))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    private static OrderMessage order(Long orderId) {
+        OrderMessage orderMessage = new OrderMessage();
+        orderMessage.setOrderId(orderId);
+        orderMessage.setUserId(7L);
+        orderMessage.setTotalAmount(new BigDecimal("10.00"));
+        return orderMessage;
+    }
+
+    private static Payment payment(Long orderId) {
+        Payment payment = new Payment();
+        payment.setId(UUID.randomUUID());
+        payment.setOrderId(orderId);
+        payment.setStatus(PaymentStatus.SUCCESS);
+        return payment;
+    }
+}
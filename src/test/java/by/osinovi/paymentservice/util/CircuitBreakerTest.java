@@ -0,0 +1,181 @@
+package by.osinovi.paymentservice.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private MutableClock clock;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        circuitBreaker = new CircuitBreaker("test", 3, Duration.ofSeconds(10), 1, clock);
+    }
+
+    @Test
+    void tryAcquirePermission_ShouldAllowCalls_WhenClosed() {
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void onFailure_ShouldOpenCircuit_WhenFailureThresholdReached() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void onSuccess_ShouldResetConsecutiveFailures() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void tryAcquirePermission_ShouldAllowSingleProbe_WhenOpenDurationElapsed() {
+        openCircuit();
+        clock.advance(Duration.ofSeconds(10));
+
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void onSuccess_ShouldCloseCircuit_WhenProbeSucceeds() {
+        openCircuit();
+        clock.advance(Duration.ofSeconds(10));
+        circuitBreaker.tryAcquirePermission();
+
+        circuitBreaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void onFailure_ShouldReopenCircuit_WhenProbeFails() {
+        openCircuit();
+        clock.advance(Duration.ofSeconds(10));
+        circuitBreaker.tryAcquirePermission();
+
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        clock.advance(Duration.ofSeconds(10));
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void releasePermission_ShouldAllowAnotherProbe_WhenProbeIsAbandoned() {
+        openCircuit();
+        clock.advance(Duration.ofSeconds(10));
+        circuitBreaker.tryAcquirePermission();
+
+        circuitBreaker.releasePermission();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    void tryAcquirePermission_ShouldGrantSingleProbe_WhenCalledConcurrentlyAfterOpenDurationElapsed() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            openCircuit();
+            for (int round = 0; round < 500; round++) {
+                clock.advance(Duration.ofSeconds(10));
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> permissions = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    permissions.add(executor.submit(() -> {
+                        start.await();
+                        return circuitBreaker.tryAcquirePermission();
+                    }));
+                }
+                start.countDown();
+                int granted = 0;
+                for (Future<Boolean> permission : permissions) {
+                    granted += permission.get(5, TimeUnit.SECONDS) ? 1 : 0;
+                }
+
+                assertEquals(1, granted);
+                circuitBreaker.onFailure();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void constructor_ShouldThrowException_WhenThresholdIsNotPositive() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CircuitBreaker("test", 0, Duration.ofSeconds(1), 1, clock));
+    }
+
+    private void openCircuit() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+    }
+
+    private static class MutableClock extends Clock {
+        private volatile Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
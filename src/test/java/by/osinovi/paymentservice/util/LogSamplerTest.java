@@ -0,0 +1,81 @@
+package by.osinovi.paymentservice.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogSamplerTest {
+
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    }
+
+    @Test
+    void tryAcquire_ShouldPermitOncePerInterval_AndCountSuppressedCalls() {
+        LogSampler sampler = new LogSampler(Duration.ofSeconds(10), clock);
+
+        assertTrue(sampler.tryAcquire());
+        assertFalse(sampler.tryAcquire());
+        assertFalse(sampler.tryAcquire());
+        assertEquals(2, sampler.drainSuppressed());
+
+        clock.advance(Duration.ofSeconds(10));
+
+        assertTrue(sampler.tryAcquire());
+        assertEquals(0, sampler.drainSuppressed());
+    }
+
+    @Test
+    void tryAcquire_ShouldAlwaysPermit_WhenIntervalIsZero() {
+        LogSampler sampler = new LogSampler(Duration.ZERO, clock);
+
+        assertTrue(sampler.tryAcquire());
+        assertTrue(sampler.tryAcquire());
+        assertEquals(0, sampler.drainSuppressed());
+    }
+
+    @Test
+    void constructor_ShouldThrowException_WhenIntervalIsNegative() {
+        assertThrows(IllegalArgumentException.class, () -> new LogSampler(Duration.ofMillis(-1), clock));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package by.osinovi.paymentservice.util;
+
+import org.bson.BsonBinary;
+import org.bson.BsonBinarySubType;
+import org.bson.UuidRepresentation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeOrderedUuidGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-15T10:00:00Z");
+
+    @Test
+    void generate_ShouldProduceVersion7UuidWithTimestampPrefix() {
+        TimeOrderedUuidGenerator generator = new TimeOrderedUuidGenerator(Clock.fixed(NOW, ZoneOffset.UTC));
+
+        UUID uuid = generator.generate();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(NOW.toEpochMilli(), uuid.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void generate_ShouldBeStrictlyIncreasing_WhenCalledWithinSameMillisecond() {
+        TimeOrderedUuidGenerator generator = new TimeOrderedUuidGenerator(Clock.fixed(NOW, ZoneOffset.UTC));
+        List<UUID> uuids = new ArrayList<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            uuids.add(generator.generate());
+        }
+
+        for (int i = 1; i < uuids.size(); i++) {
+            assertTrue(Long.compareUnsigned(uuids.get(i - 1).getMostSignificantBits(),
+                    uuids.get(i).getMostSignificantBits()) < 0);
+        }
+    }
+
+    @Test
+    void generate_ShouldStoreVersion7BytesInTimeOrder_WhenEncodedAsJavaLegacy() {
+        TimeOrderedUuidGenerator generator =
+                new TimeOrderedUuidGenerator(Clock.fixed(NOW, ZoneOffset.UTC), UuidRepresentation.JAVA_LEGACY);
+        List<byte[]> storedIds = new ArrayList<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            storedIds.add(new BsonBinary(generator.generate(), UuidRepresentation.JAVA_LEGACY).getData());
+        }
+
+        UUID firstStored = new BsonBinary(BsonBinarySubType.UUID_STANDARD, storedIds.get(0)).asUuid();
+        assertEquals(7, firstStored.version());
+        assertEquals(NOW.toEpochMilli(), firstStored.getMostSignificantBits() >>> 16);
+        for (int i = 1; i < storedIds.size(); i++) {
+            assertTrue(Arrays.compareUnsigned(storedIds.get(i - 1), storedIds.get(i)) < 0);
+        }
+    }
+
+    @Test
+    void generate_ShouldNotRepeat_WhenCalledConcurrently() {
+        TimeOrderedUuidGenerator generator = new TimeOrderedUuidGenerator(Clock.systemUTC());
+        Set<UUID> uuids = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 100_000).parallel().forEach(i -> uuids.add(generator.generate()));
+
+        assertEquals(100_000, uuids.size());
+    }
+}